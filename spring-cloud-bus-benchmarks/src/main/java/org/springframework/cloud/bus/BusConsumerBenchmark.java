@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * {@link BusConsumer#accept(RemoteApplicationEvent)} end to end: matching, publishing to
+ * the local listeners, sending the ack and, with tracing, publishing the trace events
+ * of the event and its acks. Acks are looked up in an {@link AckTracker} that tracks no
+ * sent events, as on an instance that did not send the event acked. Listeners and the
+ * broker are stubbed out, so this measures the bus itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusConsumerBenchmark {
+
+	@Param({ "false", "true" })
+	private boolean trace;
+
+	private BusConsumer consumer;
+
+	private RemoteApplicationEvent refresh;
+
+	private RemoteApplicationEvent ack;
+
+	@Setup
+	public void setup() {
+		BusProperties properties = new BusProperties();
+		properties.setId("app:8080:abc");
+		properties.getTrace().setEnabled(this.trace);
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("busBridge", (BusBridge) event -> {
+		});
+		PathDestinationFactory destinations = new PathDestinationFactory();
+		this.consumer = new BusConsumer(event -> {
+		},
+				new PathServiceMatcher(new DefaultBusPathMatcher(new AntPathMatcher(":")), properties.getId()),
+				beans.getBeanProvider(BusBridge.class), properties, destinations, new AckTracker());
+		this.refresh = new RefreshRemoteApplicationEvent(this, "origin:1", destinations.getDestination(null));
+		this.ack = new AckRemoteApplicationEvent(this, "other:1", destinations.getDestination(null), "**",
+				this.refresh.getId(), RefreshRemoteApplicationEvent.class);
+	}
+
+	@Benchmark
+	public void acceptEvent() {
+		this.consumer.accept(this.refresh);
+	}
+
+	@Benchmark
+	public void acceptAck() {
+		this.consumer.accept(this.ack);
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * The uncached path handling under the service matcher:
+ * {@link DefaultBusPathMatcher#match(String, String)} and
+ * {@link PathDestinationFactory#getDestination(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusPathBenchmark {
+
+	@Param({ "**", "app:**", "app:dev,cloud:**", "customers:**" })
+	private String pattern;
+
+	@Param({ "customers", "customers:8080:abc" })
+	private String destination;
+
+	private final DefaultBusPathMatcher matcher = new DefaultBusPathMatcher(new AntPathMatcher(":"));
+
+	private final PathDestinationFactory destinationFactory = new PathDestinationFactory();
+
+	@Benchmark
+	public boolean match() {
+		return this.matcher.match(this.pattern, "app:dev,cloud:8080:abc");
+	}
+
+	@Benchmark
+	public Destination getDestination() {
+		return this.destinationFactory.getDestination(this.destination);
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * {@link PathServiceMatcher#isForSelf(RemoteApplicationEvent)} for an event addressed to
+ * the instance and one addressed to another service, with plain and multi-profile bus
+ * ids, with and without config names. The matched destinations are cached, so
+ * {@code isForSelfUncached} cycles through more distinct destinations than the cache holds
+ * to measure the matching itself. Also {@link PathServiceMatcher#isFromSelf(String)},
+ * which does not cache origins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathServiceMatcherBenchmark {
+
+	@Param({ "app:8080:abc", "app:dev,cloud:8080:abc" })
+	private String id;
+
+	@Param({ "false", "true" })
+	private boolean configNames;
+
+	private PathServiceMatcher matcher;
+
+	private RemoteApplicationEvent forSelf;
+
+	private RemoteApplicationEvent forOther;
+
+	private String[] destinations;
+
+	private int next;
+
+	@Setup
+	public void setup() {
+		DefaultBusPathMatcher pathMatcher = new DefaultBusPathMatcher(new AntPathMatcher(":"));
+		this.matcher = this.configNames
+				? new PathServiceMatcher(pathMatcher, this.id, new String[] { "config-a", "config-b" })
+				: new PathServiceMatcher(pathMatcher, this.id);
+		PathDestinationFactory destinations = new PathDestinationFactory();
+		this.forSelf = new RefreshRemoteApplicationEvent(this, "origin:1", destinations.getDestination("app"));
+		this.forOther = new RefreshRemoteApplicationEvent(this, "origin:1", destinations.getDestination("customers"));
+		// every other destination matches the instance
+		this.destinations = new String[PathServiceMatcher.CACHE_LIMIT * 4];
+		for (int i = 0; i < this.destinations.length; i++) {
+			this.destinations[i] = ((i % 2 == 0) ? "app" : "customers") + ":**:{instance" + i + "}";
+		}
+	}
+
+	@Benchmark
+	public boolean isForSelf() {
+		return this.matcher.isForSelf(this.forSelf);
+	}
+
+	@Benchmark
+	public boolean isForOther() {
+		return this.matcher.isForSelf(this.forOther);
+	}
+
+	@Benchmark
+	public boolean isForSelfUncached() {
+		String destination = this.destinations[this.next];
+		this.next = (this.next + 1) % this.destinations.length;
+		return this.matcher.isForSelf(destination);
+	}
+
+	@Benchmark
+	public boolean isFromSelf() {
+		return this.matcher.isFromSelf(this.id);
+	}
+
+	@Benchmark
+	public boolean isFromOther() {
+		return this.matcher.isFromSelf("customers:8080:xyz");
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.jackson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import org.springframework.cloud.bus.BusEnvelope;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * Reading an inbound bus message with {@link BusJacksonMessageConverter}, for each kind
+ * of payload a binder can hand over.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusJacksonMessageConverterBenchmark {
+
+	@Param({ "bytes", "string", "decoded" })
+	private String payloadType;
+
+	private BusJacksonMessageConverter converter;
+
+	private Message<?> message;
+
+	@Setup
+	public void setup() {
+		this.converter = new BusJacksonMessageConverter((ObjectMapper) null);
+		this.converter.afterPropertiesSet();
+		RemoteApplicationEvent event = new RefreshRemoteApplicationEvent(this, "app:8080:abc",
+				new PathDestinationFactory().getDestination("customers"));
+		String json = JsonMapper.builder().build().writeValueAsString(event);
+		Object payload = event;
+		if ("bytes".equals(this.payloadType)) {
+			payload = json.getBytes(StandardCharsets.UTF_8);
+		}
+		else if ("string".equals(this.payloadType)) {
+			payload = json;
+		}
+		this.message = MessageBuilder.withPayload(payload).copyHeaders(BusEnvelope.getHeaders(event)).build();
+	}
+
+	@Benchmark
+	public Object convertFromInternal() {
+		return this.converter.convertFromInternal(this.message, RemoteApplicationEvent.class, null);
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.index;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that lists the concrete {@code RemoteApplicationEvent} subclasses
+ * of a compilation in {@value #INDEX_LOCATION}, so that the bus can register them with
+ * Jackson without scanning the classpath. Entries from a previous (incremental) build are
+ * kept as long as the types still exist and are still events.
+ */
+@SupportedAnnotationTypes("*")
+public class RemoteApplicationEventIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * Location of the index in the class output.
+	 */
+	public static final String INDEX_LOCATION = "META-INF/spring-cloud-bus/events.idx";
+
+	private static final String EVENT_TYPE = "org.springframework.cloud.bus.event.RemoteApplicationEvent";
+
+	private final Set<String> types = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		TypeElement eventType = this.processingEnv.getElementUtils().getTypeElement(EVENT_TYPE);
+		if (eventType == null) {
+			// the bus is not on the classpath, nothing to index
+			return false;
+		}
+		if (roundEnv.processingOver()) {
+			writeIndex(eventType.asType());
+		}
+		else {
+			for (Element element : roundEnv.getRootElements()) {
+				collect(element, eventType.asType());
+			}
+		}
+		return false;
+	}
+
+	private void collect(Element element, TypeMirror eventType) {
+		if (!(element instanceof TypeElement type)) {
+			return;
+		}
+		if (isEvent(type, eventType)) {
+			this.types.add(this.processingEnv.getElementUtils().getBinaryName(type).toString());
+		}
+		for (Element enclosed : type.getEnclosedElements()) {
+			collect(enclosed, eventType);
+		}
+	}
+
+	private boolean isEvent(TypeElement type, TypeMirror eventType) {
+		if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+			return false;
+		}
+		if (type.getNestingKind() != NestingKind.TOP_LEVEL && (type.getNestingKind() != NestingKind.MEMBER
+				|| !type.getModifiers().contains(Modifier.STATIC))) {
+			// only independent classes can be instantiated by Jackson
+			return false;
+		}
+		return this.processingEnv.getTypeUtils().isAssignable(type.asType(), eventType);
+	}
+
+	private void writeIndex(TypeMirror eventType) {
+		try {
+			readPreviousIndex(eventType);
+			if (this.types.isEmpty()) {
+				return;
+			}
+			FileObject file = this.processingEnv.getFiler()
+				.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+			try (OutputStream stream = file.openOutputStream();
+					Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8)) {
+				for (String type : this.types) {
+					writer.write(type);
+					writer.write('\n');
+				}
+			}
+		}
+		catch (IOException ex) {
+			this.processingEnv.getMessager()
+				.printMessage(Diagnostic.Kind.ERROR, "Unable to write " + INDEX_LOCATION + ": " + ex);
+		}
+	}
+
+	private void readPreviousIndex(TypeMirror eventType) throws IOException {
+		FileObject file;
+		try {
+			file = this.processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			return;
+		}
+		try (InputStream stream = file.openInputStream();
+				BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (!line.isEmpty() && !line.startsWith("#") && !this.types.contains(line)) {
+					// canonical name lookup, nested types are stored with their binary name
+					TypeElement type = this.processingEnv.getElementUtils().getTypeElement(line.replace('$', '.'));
+					if (type != null && isEvent(type, eventType)) {
+						this.types.add(line);
+					}
+				}
+			}
+		}
+		catch (FileNotFoundException | NoSuchFileException ex) {
+			// first build
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RemoteApplicationEventIndexProcessorTests {
+
+	private static final String EVENT = "org.springframework.cloud.bus.event.RemoteApplicationEvent";
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	private File sources;
+
+	private File output;
+
+	@Before
+	public void init() throws IOException {
+		this.sources = this.temp.newFolder("src");
+		this.output = this.temp.newFolder("out");
+		source("org.springframework.cloud.bus.event.RemoteApplicationEvent",
+				"public abstract class RemoteApplicationEvent {}");
+	}
+
+	@Test
+	public void indexesConcreteEvents() throws IOException {
+		source("com.example.MyEvent",
+				"public class MyEvent extends " + EVENT + " {"
+						+ " public static class Nested extends MyEvent {}"
+						+ " public class Inner extends " + EVENT + " {} }");
+		source("com.example.AbstractEvent",
+				"public abstract class AbstractEvent extends " + EVENT + " {}");
+		source("com.example.Other", "public class Other {}");
+		compile(all());
+		assertThat(index()).containsExactly("com.example.MyEvent", "com.example.MyEvent$Nested");
+	}
+
+	@Test
+	public void noIndexWithoutEvents() throws IOException {
+		source("com.example.Other", "public class Other {}");
+		compile(all());
+		assertThat(new File(this.output, RemoteApplicationEventIndexProcessor.INDEX_LOCATION)).doesNotExist();
+	}
+
+	@Test
+	public void incrementalBuildKeepsExistingEvents() throws IOException {
+		File event = source("com.example.MyEvent",
+				"public class MyEvent extends " + EVENT + " {}");
+		File other = source("com.example.OtherEvent",
+				"public class OtherEvent extends " + EVENT + " {}");
+		compile(all());
+		assertThat(index()).containsExactly("com.example.MyEvent", "com.example.OtherEvent");
+		new File(this.output, "com/example/OtherEvent.class").delete();
+		other.delete();
+		compile(List.of(event));
+		assertThat(index()).containsExactly("com.example.MyEvent");
+	}
+
+	private File source(String className, String body) throws IOException {
+		int dot = className.lastIndexOf('.');
+		File file = new File(this.sources, className.replace('.', '/') + ".java");
+		file.getParentFile().mkdirs();
+		Files.writeString(file.toPath(), "package " + className.substring(0, dot) + ";\n" + body);
+		return file;
+	}
+
+	private List<File> all() throws IOException {
+		List<File> files = new ArrayList<>();
+		try (Stream<Path> paths = Files.walk(this.sources.toPath())) {
+			paths.filter(Files::isRegularFile).forEach((path) -> files.add(path.toFile()));
+		}
+		return files;
+	}
+
+	private void compile(List<File> files) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null,
+				StandardCharsets.UTF_8)) {
+			Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+			List<String> options = Arrays.asList("-d", this.output.getPath(), "-cp", this.output.getPath());
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+			task.setProcessors(List.of(new RemoteApplicationEventIndexProcessor()));
+			assertThat(task.call()).isTrue();
+		}
+	}
+
+	private List<String> index() throws IOException {
+		return Files.readAllLines(new File(this.output, RemoteApplicationEventIndexProcessor.INDEX_LOCATION).toPath());
+	}
+
+}
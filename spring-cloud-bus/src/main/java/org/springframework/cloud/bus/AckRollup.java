@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent.Entry;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent.Outcome;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Buffers the acks of this node for a short window and sends them as one
+ * {@link AckRollupRemoteApplicationEvent} per ack destination. The buffer is flushed
+ * when the window of its oldest ack ends or when it reaches its maximum size.
+ */
+public class AckRollup implements DisposableBean {
+
+	private final ObjectProvider<BusBridge> busBridge;
+
+	private final String originService;
+
+	private final int maxSize;
+
+	private final Duration window;
+
+	private final ScheduledExecutorService scheduler;
+
+	private Map<String, List<PendingAck>> buffer = new LinkedHashMap<>();
+
+	private int size;
+
+	private ScheduledFuture<?> scheduledFlush;
+
+	public AckRollup(ObjectProvider<BusBridge> busBridge, String originService, BusProperties.Ack.Rollup properties) {
+		this.busBridge = busBridge;
+		this.originService = originService;
+		this.maxSize = properties.getMaxSize();
+		this.window = properties.getWindow();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spring-cloud-bus-ack-");
+		threadFactory.setDaemon(true);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	/**
+	 * Add an ack to the next rollup to its destination.
+	 * @param ack the ack to send
+	 * @param outcome what this node did with the acked event
+	 */
+	public void add(AckRemoteApplicationEvent ack, Outcome outcome) {
+		Map<String, List<PendingAck>> full = null;
+		synchronized (this) {
+			this.buffer.computeIfAbsent(ack.getDestinationService(), destination -> new ArrayList<>())
+				.add(new PendingAck(ack, outcome));
+			if (++this.size >= this.maxSize) {
+				full = takeBuffer();
+			}
+			else if (this.scheduledFlush == null) {
+				this.scheduledFlush = this.scheduler.schedule(this::flush, this.window.toMillis(),
+						TimeUnit.MILLISECONDS);
+			}
+		}
+		if (full != null) {
+			send(full);
+		}
+	}
+
+	void flush() {
+		Map<String, List<PendingAck>> acks;
+		synchronized (this) {
+			acks = takeBuffer();
+		}
+		send(acks);
+	}
+
+	private Map<String, List<PendingAck>> takeBuffer() {
+		Map<String, List<PendingAck>> acks = this.buffer;
+		this.buffer = new LinkedHashMap<>();
+		this.size = 0;
+		if (this.scheduledFlush != null) {
+			this.scheduledFlush.cancel(false);
+			this.scheduledFlush = null;
+		}
+		return acks;
+	}
+
+	private void send(Map<String, List<PendingAck>> acks) {
+		BusBridge bridge = this.busBridge.getIfAvailable();
+		if (bridge == null) {
+			return;
+		}
+		acks.forEach((destination, pending) -> bridge.send(toMessage(destination, pending)));
+	}
+
+	private RemoteApplicationEvent toMessage(String destination, List<PendingAck> pending) {
+		if (pending.size() == 1 && pending.get(0).outcome == Outcome.PROCESSED) {
+			// a plain ack is understood by every node and no larger
+			return pending.get(0).ack;
+		}
+		List<Entry> entries = new ArrayList<>(pending.size());
+		for (PendingAck ack : pending) {
+			entries.add(new Entry(ack.ack, ack.outcome));
+		}
+		return new AckRollupRemoteApplicationEvent(this, this.originService, () -> destination, entries);
+	}
+
+	@Override
+	public void destroy() {
+		flush();
+		this.scheduler.shutdown();
+	}
+
+	private static final class PendingAck {
+
+		private final AckRemoteApplicationEvent ack;
+
+		private final Outcome outcome;
+
+		private PendingAck(AckRemoteApplicationEvent ack, Outcome outcome) {
+			this.ack = ack;
+			this.outcome = outcome;
+		}
+
+	}
+
+}
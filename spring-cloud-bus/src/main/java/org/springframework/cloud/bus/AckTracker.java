@@ -0,0 +1,373 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.cloud.bus.event.SentApplicationEvent;
+import org.springframework.util.Assert;
+
+/**
+ * Correlates the {@link AckRemoteApplicationEvent acks} received by the
+ * {@link BusConsumer} with the events they acknowledge. Each tracked event gets a
+ * {@link Record} of who responded and how long they took, with a future that completes
+ * once enough of the expected services responded or the timeout expires. Records are
+ * kept in a bounded store, oldest evicted first, so they can still be inspected after
+ * they completed. The store is bounded by the number of records, however many events
+ * each of them tracks.
+ */
+public class AckTracker {
+
+	/**
+	 * Default number of events kept in the store.
+	 */
+	public static final int DEFAULT_LIMIT = 1024;
+
+	/**
+	 * Default time after which a record stops waiting for acks.
+	 */
+	public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+	private final Map<String, Record> records = new LinkedHashMap<>();
+
+	// one entry per record, oldest first, guarded by records
+	private final Set<Record> stored = new LinkedHashSet<>();
+
+	private final AtomicInteger pending = new AtomicInteger();
+
+	private final int limit;
+
+	private final Duration timeout;
+
+	private BusMetrics metrics = BusMetrics.NONE;
+
+	public AckTracker() {
+		this(DEFAULT_LIMIT, DEFAULT_TIMEOUT);
+	}
+
+	public AckTracker(int limit, Duration timeout) {
+		Assert.isTrue(limit > 0, "Limit must be positive");
+		this.limit = limit;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @return the time after which traced records stop waiting for acks
+	 */
+	public Duration getTimeout() {
+		return this.timeout;
+	}
+
+	/**
+	 * Record the round-trip time of the acks for the events this instance sent.
+	 * @param metrics the metrics to record to
+	 */
+	public void setMetrics(BusMetrics metrics) {
+		this.metrics = (metrics != null) ? metrics : BusMetrics.NONE;
+	}
+
+	/**
+	 * Track the acks for an event whose recipients are not known in advance. The record
+	 * completes when the timeout expires.
+	 * @param event the event about to be sent
+	 * @param timeout how long to wait for acks
+	 * @return the record of the event
+	 */
+	public Record track(RemoteApplicationEvent event, Duration timeout) {
+		return track(Collections.singletonList(event), Collections.emptySet(), Integer.MAX_VALUE, timeout);
+	}
+
+	/**
+	 * Track the acks for events sent to a known set of services. The record completes
+	 * once the quorum of the expected services responded (all of them if the quorum is
+	 * larger than the set), or when the timeout expires.
+	 * @param events the events about to be sent, acks for any of them count
+	 * @param expected the services expected to respond, or empty if unknown
+	 * @param quorum the number of expected services that have to respond
+	 * @param timeout how long to wait for acks
+	 * @return the record of the events
+	 */
+	public Record track(List<? extends RemoteApplicationEvent> events, Set<String> expected, int quorum,
+			Duration timeout) {
+		Assert.notEmpty(events, "Events must not be empty");
+		List<String> ids = new ArrayList<>();
+		Set<String> destinations = new LinkedHashSet<>();
+		for (RemoteApplicationEvent event : events) {
+			ids.add(event.getId());
+			destinations.add(event.getDestinationService());
+		}
+		RemoteApplicationEvent first = events.get(0);
+		Record record = new Record(ids, first.getClass().getSimpleName(), first.getOriginService(),
+				new ArrayList<>(destinations), expected, quorum, true);
+		store(record, timeout);
+		return record;
+	}
+
+	/**
+	 * Record an event seen on the bus, unless it is tracked already. Used for tracing,
+	 * so the record completes after the default timeout.
+	 * @param event the event seen
+	 * @return the record of the event
+	 */
+	public Record trace(SentApplicationEvent event) {
+		synchronized (this.records) {
+			Record existing = this.records.get(event.getId());
+			if (existing != null) {
+				return existing;
+			}
+		}
+		Record record = new Record(Collections.singletonList(event.getId()), event.getType().getSimpleName(),
+				event.getOriginService(), Collections.singletonList(event.getDestinationService()),
+				Collections.emptySet(), Integer.MAX_VALUE, false);
+		store(record, this.timeout);
+		return record;
+	}
+
+	/**
+	 * Record an ack, if the event it acknowledges is tracked.
+	 * @param ack the ack received
+	 */
+	public void acknowledge(AckRemoteApplicationEvent ack) {
+		Record record;
+		synchronized (this.records) {
+			record = this.records.get(ack.getAckId());
+		}
+		if (record != null) {
+			Duration roundTrip = record.acknowledge(ack.getOriginService());
+			if (roundTrip != null && record.sent) {
+				this.metrics.ackReceived(record.type, roundTrip);
+			}
+		}
+	}
+
+	/**
+	 * Whether any acks are currently being waited for.
+	 * @return true if at least one record has not completed yet
+	 */
+	public boolean isTracking() {
+		return this.pending.get() > 0;
+	}
+
+	/**
+	 * @param eventId the id of an event
+	 * @return the record of the event, or null if it is not (or no longer) tracked
+	 */
+	public Record getRecord(String eventId) {
+		synchronized (this.records) {
+			return this.records.get(eventId);
+		}
+	}
+
+	/**
+	 * @return the records in the store, oldest first
+	 */
+	public List<Record> getRecords() {
+		synchronized (this.records) {
+			return new ArrayList<>(this.stored);
+		}
+	}
+
+	private void store(Record record, Duration timeout) {
+		this.pending.incrementAndGet();
+		record.future.whenComplete((result, ex) -> this.pending.decrementAndGet());
+		List<Record> evicted = new ArrayList<>();
+		synchronized (this.records) {
+			for (String id : record.ids) {
+				Record replaced = this.records.put(id, record);
+				if (replaced != null && replaced != record && !isStored(replaced)) {
+					this.stored.remove(replaced);
+					evicted.add(replaced);
+				}
+			}
+			this.stored.add(record);
+			// the record is the newest, so the limit is reached before getting to it
+			Iterator<Record> iterator = this.stored.iterator();
+			while (this.stored.size() > this.limit) {
+				Record oldest = iterator.next();
+				iterator.remove();
+				for (String id : oldest.ids) {
+					this.records.remove(id, oldest);
+				}
+				evicted.add(oldest);
+			}
+		}
+		// complete outside the lock, callers may be waiting on them
+		evicted.forEach(Record::expire);
+		record.future.completeOnTimeout(record, timeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	// whether any of the ids of the record still map to it
+	private boolean isStored(Record record) {
+		for (String id : record.ids) {
+			if (this.records.get(id) == record) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The acks received for one or more events.
+	 */
+	public static final class Record {
+
+		private final List<String> ids;
+
+		private final String type;
+
+		private final String origin;
+
+		private final List<String> destinations;
+
+		private final Set<String> expected;
+
+		private final int quorum;
+
+		// whether this instance sent the events, rather than saw them on the bus
+		private final boolean sent;
+
+		private final Instant sentAt = Instant.now();
+
+		private final long startTime = System.nanoTime();
+
+		private final Map<String, Duration> responses = new LinkedHashMap<>();
+
+		private final CompletableFuture<Record> future = new CompletableFuture<>();
+
+		private volatile boolean quorumReached;
+
+		private Record(List<String> ids, String type, String origin, List<String> destinations, Set<String> expected,
+				int quorum, boolean sent) {
+			this.ids = ids;
+			this.type = type;
+			this.origin = origin;
+			this.destinations = destinations;
+			this.expected = Collections.unmodifiableSet(new LinkedHashSet<>(expected));
+			this.quorum = expected.isEmpty() ? quorum : Math.min(quorum, expected.size());
+			this.sent = sent;
+		}
+
+		private Duration acknowledge(String service) {
+			Duration elapsed;
+			synchronized (this.responses) {
+				if (this.responses.containsKey(service)) {
+					return null;
+				}
+				// late responses are still recorded, they just do not count any more
+				elapsed = Duration.ofNanos(System.nanoTime() - this.startTime);
+				this.responses.put(service, elapsed);
+				if (this.quorumReached || this.future.isDone() || countResponses() < this.quorum) {
+					return elapsed;
+				}
+				this.quorumReached = true;
+			}
+			this.future.complete(this);
+			return elapsed;
+		}
+
+		private int countResponses() {
+			if (this.expected.isEmpty()) {
+				return this.responses.size();
+			}
+			int count = 0;
+			for (String service : this.responses.keySet()) {
+				if (this.expected.contains(service)) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		private void expire() {
+			this.future.complete(this);
+		}
+
+		/**
+		 * @return the ids of the events tracked together
+		 */
+		public List<String> getIds() {
+			return this.ids;
+		}
+
+		public String getType() {
+			return this.type;
+		}
+
+		public String getOrigin() {
+			return this.origin;
+		}
+
+		public List<String> getDestinations() {
+			return this.destinations;
+		}
+
+		/**
+		 * @return the services expected to respond, empty if they are not known
+		 */
+		public Set<String> getExpected() {
+			return this.expected;
+		}
+
+		public Instant getSentAt() {
+			return this.sentAt;
+		}
+
+		/**
+		 * @return the services that responded, in order of response, with the time they
+		 * took
+		 */
+		public Map<String, Duration> getResponses() {
+			synchronized (this.responses) {
+				return new LinkedHashMap<>(this.responses);
+			}
+		}
+
+		/**
+		 * @return whether the expected services responded before the timeout
+		 */
+		public boolean isComplete() {
+			return this.quorumReached;
+		}
+
+		/**
+		 * @return a future completing with this record once the quorum is reached or
+		 * the timeout expires
+		 */
+		@JsonIgnore
+		public CompletableFuture<Record> getFuture() {
+			return this.future;
+		}
+
+	}
+
+}
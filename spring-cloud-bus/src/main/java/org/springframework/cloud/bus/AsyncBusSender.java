@@ -0,0 +1,198 @@
+/*
+ * Copyright 2015-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.cloud.bus.BusProperties.Send.OverflowPolicy;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.MessageDeliveryException;
+
+/**
+ * Sends events from a bounded queue on a dedicated thread (a virtual thread where the
+ * JVM supports them), so that publishers are not blocked by a slow broker.
+ */
+class AsyncBusSender implements AutoCloseable {
+
+	private static final Log log = LogFactory.getLog(AsyncBusSender.class);
+
+	private static final long POLL_INTERVAL_MILLIS = 100;
+
+	private final BiPredicate<RemoteApplicationEvent, Object> target;
+
+	private final BlockingQueue<PendingSend> queue;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final Duration shutdownTimeout;
+
+	private final CountDownLatch stopped = new CountDownLatch(1);
+
+	private volatile boolean running = true;
+
+	AsyncBusSender(BiPredicate<RemoteApplicationEvent, Object> target, BusProperties.Send properties) {
+		this.target = target;
+		this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+		this.overflowPolicy = properties.getOverflowPolicy();
+		this.shutdownTimeout = properties.getShutdownTimeout();
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("spring-cloud-bus-sender-");
+		if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+			executor.setVirtualThreads(true);
+		}
+		executor.execute(this::drain);
+	}
+
+	CompletableFuture<Void> submit(RemoteApplicationEvent event) {
+		return submit(event, null);
+	}
+
+	/**
+	 * Queue an event to send.
+	 * @param event the event to send
+	 * @param context the context of the caller, handed to the target with the event
+	 * @return the result of the send
+	 */
+	CompletableFuture<Void> submit(RemoteApplicationEvent event, Object context) {
+		PendingSend pending = new PendingSend(event, context);
+		if (!this.running) {
+			return rejectClosed(pending);
+		}
+		switch (this.overflowPolicy) {
+			case BLOCK:
+				try {
+					// wait for space, but not beyond close()
+					while (!this.queue.offer(pending, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+						if (!this.running) {
+							return rejectClosed(pending);
+						}
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					pending.future.completeExceptionally(e);
+					return pending.future;
+				}
+				break;
+			case DROP_OLDEST:
+				while (!this.queue.offer(pending)) {
+					PendingSend dropped = this.queue.poll();
+					if (dropped != null) {
+						dropped.future.completeExceptionally(
+								new RejectedExecutionException("Bus send queue full, dropped " + dropped.event));
+					}
+				}
+				break;
+			default:
+				if (!this.queue.offer(pending)) {
+					pending.future.completeExceptionally(
+							new RejectedExecutionException("Bus send queue full, rejected " + event));
+					return pending.future;
+				}
+		}
+		if (!this.running && this.queue.remove(pending)) {
+			// closed while enqueueing, so the queue may no longer be drained
+			return rejectClosed(pending);
+		}
+		return pending.future;
+	}
+
+	private static CompletableFuture<Void> rejectClosed(PendingSend pending) {
+		pending.future.completeExceptionally(new RejectedExecutionException("Bus sender is closed"));
+		return pending.future;
+	}
+
+	private void drain() {
+		try {
+			while (this.running || !this.queue.isEmpty()) {
+				PendingSend pending = this.queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+				if (pending != null) {
+					pending.send();
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			this.stopped.countDown();
+		}
+	}
+
+	@Override
+	public void close() {
+		this.running = false;
+		try {
+			if (!this.stopped.await(this.shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				log.warn("Timed out waiting for queued bus events to be sent");
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		List<PendingSend> unsent = new ArrayList<>();
+		this.queue.drainTo(unsent);
+		for (PendingSend pending : unsent) {
+			rejectClosed(pending);
+		}
+	}
+
+	private final class PendingSend {
+
+		private final RemoteApplicationEvent event;
+
+		private final Object context;
+
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		private PendingSend(RemoteApplicationEvent event, Object context) {
+			this.event = event;
+			this.context = context;
+		}
+
+		private void send() {
+			try {
+				if (AsyncBusSender.this.target.test(this.event, this.context)) {
+					this.future.complete(null);
+				}
+				else {
+					this.future
+						.completeExceptionally(new MessageDeliveryException("Bus refused to send " + this.event));
+				}
+			}
+			catch (RuntimeException e) {
+				// reported by whoever handles the future
+				this.future.completeExceptionally(e);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2015-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import org.springframework.cloud.bus.event.BatchRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Collects events sent within a short linger window and hands them to the target as a
+ * single {@link BatchRemoteApplicationEvent}. A batch is flushed when it reaches its
+ * maximum size or when the oldest event in it has waited for the linger time.
+ */
+class BatchingBusSender implements AutoCloseable {
+
+	private static final String ALL_DESTINATIONS = "**";
+
+	private final BiFunction<RemoteApplicationEvent, Object, CompletableFuture<Void>> target;
+
+	private final String originService;
+
+	private final int maxSize;
+
+	private final Duration linger;
+
+	private final ScheduledExecutorService scheduler;
+
+	private List<PendingEvent> buffer = new ArrayList<>();
+
+	private ScheduledFuture<?> scheduledFlush;
+
+	BatchingBusSender(BiFunction<RemoteApplicationEvent, Object, CompletableFuture<Void>> target,
+			String originService, BusProperties.Send.Batch properties) {
+		this.target = target;
+		this.originService = originService;
+		this.maxSize = properties.getMaxSize();
+		this.linger = properties.getLinger();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spring-cloud-bus-batch-");
+		threadFactory.setDaemon(true);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	CompletableFuture<Void> submit(RemoteApplicationEvent event) {
+		return submit(event, null);
+	}
+
+	/**
+	 * Add an event to the current batch.
+	 * @param event the event to send
+	 * @param context the context of the caller, handed to the target with the batch
+	 * (the context of the first event for a batch of several)
+	 * @return the result of the send
+	 */
+	CompletableFuture<Void> submit(RemoteApplicationEvent event, Object context) {
+		PendingEvent pending = new PendingEvent(event, context);
+		List<PendingEvent> full = null;
+		synchronized (this) {
+			this.buffer.add(pending);
+			if (this.buffer.size() >= this.maxSize) {
+				full = takeBuffer();
+			}
+			else if (this.scheduledFlush == null) {
+				this.scheduledFlush = this.scheduler.schedule(this::flush, this.linger.toMillis(),
+						TimeUnit.MILLISECONDS);
+			}
+		}
+		if (full != null) {
+			send(full);
+		}
+		return pending.future;
+	}
+
+	void flush() {
+		List<PendingEvent> events;
+		synchronized (this) {
+			events = takeBuffer();
+		}
+		send(events);
+	}
+
+	private List<PendingEvent> takeBuffer() {
+		List<PendingEvent> events = this.buffer;
+		this.buffer = new ArrayList<>();
+		if (this.scheduledFlush != null) {
+			this.scheduledFlush.cancel(false);
+			this.scheduledFlush = null;
+		}
+		return events;
+	}
+
+	private void send(List<PendingEvent> events) {
+		if (events.isEmpty()) {
+			return;
+		}
+		RemoteApplicationEvent message;
+		if (events.size() == 1) {
+			// nothing to share a message with
+			message = events.get(0).event;
+		}
+		else {
+			List<RemoteApplicationEvent> batch = new ArrayList<>(events.size());
+			String destination = events.get(0).event.getDestinationService();
+			for (PendingEvent pending : events) {
+				batch.add(pending.event);
+				if (destination != null && !destination.equals(pending.event.getDestinationService())) {
+					destination = null;
+				}
+			}
+			// a common destination lets receivers filter the whole batch on its envelope
+			String batchDestination = (destination != null) ? destination : ALL_DESTINATIONS;
+			Destination batchTarget = () -> batchDestination;
+			message = new BatchRemoteApplicationEvent(this, this.originService, batchTarget, batch);
+		}
+		CompletableFuture<Void> result;
+		try {
+			result = this.target.apply(message, events.get(0).context);
+		}
+		catch (RuntimeException e) {
+			result = CompletableFuture.failedFuture(e);
+		}
+		result.whenComplete((ignored, ex) -> {
+			for (PendingEvent pending : events) {
+				if (ex != null) {
+					pending.future.completeExceptionally(ex);
+				}
+				else {
+					pending.future.complete(null);
+				}
+			}
+		});
+	}
+
+	@Override
+	public void close() {
+		flush();
+		this.scheduler.shutdown();
+	}
+
+	private static final class PendingEvent {
+
+		private final RemoteApplicationEvent event;
+
+		private final Object context;
+
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		private PendingEvent(RemoteApplicationEvent event, Object context) {
+			this.event = event;
+			this.context = context;
+		}
+
+	}
+
+}
@@ -16,10 +16,14 @@
 
 package org.springframework.cloud.bus;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.ObservationRegistry;
+
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
-import org.springframework.boot.actuate.web.exchanges.HttpExchangeRepository;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -28,6 +32,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.bus.endpoint.EnvironmentBusEndpoint;
 import org.springframework.cloud.bus.event.Destination;
 import org.springframework.cloud.bus.event.EnvironmentChangeListener;
+import org.springframework.cloud.bus.event.EventIdGenerator;
 import org.springframework.cloud.bus.event.PathDestinationFactory;
 import org.springframework.cloud.bus.event.TraceListener;
 import org.springframework.cloud.context.environment.EnvironmentManager;
@@ -62,20 +67,98 @@ public class BusAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean(name = BUS_CONSUMER)
 	public BusConsumer busConsumer(ApplicationEventPublisher applicationEventPublisher, ServiceMatcher serviceMatcher,
-			ObjectProvider<BusBridge> busBridge, BusProperties properties, Destination.Factory destinationFactory) {
-		return new BusConsumer(applicationEventPublisher, serviceMatcher, busBridge, properties, destinationFactory);
+			ObjectProvider<BusBridge> busBridge, BusProperties properties, Destination.Factory destinationFactory,
+			ObjectProvider<AckTracker> ackTracker, ObjectProvider<AckRollup> ackRollup,
+			ObjectProvider<EventDeduplicator> deduplicator, ObjectProvider<BusMetrics> metrics,
+			ObjectProvider<BusObserver> observer) {
+		BusConsumer consumer = new BusConsumer(applicationEventPublisher, serviceMatcher, busBridge, properties,
+				destinationFactory, ackTracker.getIfAvailable());
+		consumer.setAckRollup(ackRollup.getIfAvailable());
+		consumer.setDeduplicator(deduplicator.getIfAvailable());
+		metrics.ifAvailable(consumer::setMetrics);
+		observer.ifAvailable(consumer::setObserver);
+		return consumer;
+	}
+
+	@Bean
+	@ConditionalOnBean(EventIdGenerator.class)
+	@ConditionalOnMissingBean
+	public EventIdGeneratorInitializer busEventIdGeneratorInitializer(EventIdGenerator idGenerator) {
+		return new EventIdGeneratorInitializer(idGenerator);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(BusProperties.PREFIX + ".dedup.enabled")
+	public EventDeduplicator busEventDeduplicator(BusProperties properties) {
+		return new EventDeduplicator(properties.getDedup().getWindow(), properties.getDedup().getMaxSize());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(BusProperties.PREFIX + ".ack.rollup.enabled")
+	public AckRollup busAckRollup(ObjectProvider<BusBridge> busBridge, BusProperties properties) {
+		return new AckRollup(busBridge, properties.getId(), properties.getAck().getRollup());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public AckTracker busAckTracker(BusProperties properties, ObjectProvider<BusMetrics> metrics) {
+		AckTracker tracker = new AckTracker(properties.getAck().getTrackingLimit(),
+				properties.getAck().getTrackingTimeout());
+		metrics.ifAvailable(tracker::setMetrics);
+		return tracker;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(value = "spring.cloud.bus.filter.enabled", matchIfMissing = true)
+	public BusEnvelopeFilter busEnvelopeFilter(ServiceMatcher serviceMatcher, BusProperties properties,
+			ObjectProvider<AckTracker> ackTracker) {
+		return new BusEnvelopeFilter(serviceMatcher, properties, ackTracker.getIfAvailable());
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	protected static class BusMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean(BusMetrics.class)
+		public MicrometerBusMetrics busMetrics() {
+			return new MicrometerBusMetrics();
+		}
+
+		@Bean
+		public MeterBinder busDeduplicatorMetrics(ObjectProvider<EventDeduplicator> deduplicator) {
+			return registry -> deduplicator.ifAvailable(dedup -> FunctionCounter
+				.builder("spring.cloud.bus.events.duplicate", dedup, EventDeduplicator::getDuplicates)
+				.description("Redelivered events dropped by the bus consumer")
+				.register(registry));
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(ObservationRegistry.class)
+	protected static class BusObservationConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean(BusObserver.class)
+		public MicrometerBusObserver busObserver(ObjectProvider<ObservationRegistry> registry) {
+			return new MicrometerBusObserver(registry.getIfAvailable(() -> ObservationRegistry.NOOP));
+		}
+
 	}
 
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass({ Endpoint.class })
-	@ConditionalOnBean(HttpExchangeRepository.class)
 	@ConditionalOnProperty(BusProperties.PREFIX + ".trace.enabled")
 	protected static class BusAckTraceConfiguration {
 
 		@Bean
 		@ConditionalOnMissingBean
-		public TraceListener ackTraceListener(HttpExchangeRepository repository) {
-			return new TraceListener(repository);
+		public TraceListener ackTraceListener(AckTracker ackTracker) {
+			return new TraceListener(ackTracker);
 		}
 
 	}
@@ -98,8 +181,11 @@ public class BusAutoConfiguration {
 			@Bean
 			@ConditionalOnAvailableEndpoint
 			public EnvironmentBusEndpoint environmentBusEndpoint(ApplicationEventPublisher publisher, BusProperties bus,
-					Destination.Factory destinationFactory) {
-				return new EnvironmentBusEndpoint(publisher, bus.getId(), destinationFactory);
+					Destination.Factory destinationFactory, ObjectProvider<AckTracker> ackTracker) {
+				EnvironmentBusEndpoint endpoint = new EnvironmentBusEndpoint(publisher, bus.getId(),
+						destinationFactory);
+				endpoint.setAckTracker(ackTracker.getIfAvailable());
+				return endpoint;
 			}
 
 		}
@@ -16,10 +16,28 @@
 
 package org.springframework.cloud.bus;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 
 public interface BusBridge {
 
 	void send(RemoteApplicationEvent event);
 
+	/**
+	 * Send an event and report the outcome through the returned future. The default
+	 * sends synchronously on the calling thread.
+	 * @param event the event to send
+	 * @return a future completed once the event has been handed to the broker
+	 */
+	default CompletableFuture<Void> sendAsync(RemoteApplicationEvent event) {
+		try {
+			send(event);
+			return CompletableFuture.completedFuture(null);
+		}
+		catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
 }
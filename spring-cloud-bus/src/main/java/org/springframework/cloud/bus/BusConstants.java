@@ -42,4 +42,36 @@ public abstract class BusConstants {
 	 */
 	public static final String BUS_CONSUMER = "busConsumer";
 
+	/**
+	 * Name of the message header carrying the origin service of an event.
+	 */
+	public static final String ORIGIN_SERVICE_HEADER = "busOriginService";
+
+	/**
+	 * Name of the message header carrying the destination service of an event.
+	 */
+	public static final String DESTINATION_SERVICE_HEADER = "busDestinationService";
+
+	/**
+	 * Name of the message header carrying the id of an event.
+	 */
+	public static final String ID_HEADER = "busEventId";
+
+	/**
+	 * Name of the message header carrying the JSON type id of an event.
+	 */
+	public static final String TYPE_HEADER = "busEventType";
+
+	/**
+	 * Name of the message header carrying the time an event was sent, in milliseconds
+	 * since the epoch.
+	 */
+	public static final String TIMESTAMP_HEADER = "busSendTimestamp";
+
+	/**
+	 * Name of the message header carrying the sequence number of an event among the
+	 * messages sent by its origin instance.
+	 */
+	public static final String SEQUENCE_HEADER = "busSendSequence";
+
 }
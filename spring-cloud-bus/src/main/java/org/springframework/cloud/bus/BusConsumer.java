@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.bus;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import org.apache.commons.logging.Log;
@@ -23,7 +25,12 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent.Outcome;
+import org.springframework.cloud.bus.event.BatchRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.EventId;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 import org.springframework.cloud.bus.event.SentApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
@@ -42,18 +49,145 @@ public class BusConsumer implements Consumer<RemoteApplicationEvent> {
 
 	private final Destination.Factory destinationFactory;
 
+	private final AckTracker ackTracker;
+
+	private AckRollup ackRollup;
+
+	private EventDeduplicator deduplicator;
+
+	private BusMetrics metrics = BusMetrics.NONE;
+
+	private BusObserver observer = BusObserver.NONE;
+
 	public BusConsumer(ApplicationEventPublisher publisher, ServiceMatcher serviceMatcher,
 			ObjectProvider<BusBridge> busBridge, BusProperties properties, Destination.Factory destinationFactory) {
+		this(publisher, serviceMatcher, busBridge, properties, destinationFactory, null);
+	}
+
+	public BusConsumer(ApplicationEventPublisher publisher, ServiceMatcher serviceMatcher,
+			ObjectProvider<BusBridge> busBridge, BusProperties properties, Destination.Factory destinationFactory,
+			AckTracker ackTracker) {
 		this.publisher = publisher;
 		this.serviceMatcher = serviceMatcher;
 		this.busBridge = busBridge;
 		this.properties = properties;
 		this.destinationFactory = destinationFactory;
+		this.ackTracker = ackTracker;
+	}
+
+	/**
+	 * Send the acks of this node in rollups instead of one by one.
+	 * @param ackRollup the rollup to add acks to, or null to send them straight away
+	 */
+	public void setAckRollup(AckRollup ackRollup) {
+		this.ackRollup = ackRollup;
+	}
+
+	/**
+	 * Drop events that were already received.
+	 * @param deduplicator the ids of the events received, or null to accept every
+	 * event
+	 */
+	public void setDeduplicator(EventDeduplicator deduplicator) {
+		this.deduplicator = deduplicator;
+	}
+
+	/**
+	 * Count the events received by what was done with them.
+	 * @param metrics the metrics to record to
+	 */
+	public void setMetrics(BusMetrics metrics) {
+		this.metrics = (metrics != null) ? metrics : BusMetrics.NONE;
+	}
+
+	/**
+	 * Observe the processing of each received event, e.g. to continue its trace.
+	 * @param observer the observer to use
+	 */
+	public void setObserver(BusObserver observer) {
+		this.observer = (observer != null) ? observer : BusObserver.NONE;
 	}
 
 	@Override
 	public void accept(RemoteApplicationEvent event) {
+		if (BusEnvelope.isDiscarded(event)) {
+			// filtered on its envelope before the payload was read
+			return;
+		}
+		if (event instanceof BatchRemoteApplicationEvent) {
+			for (RemoteApplicationEvent batched : ((BatchRemoteApplicationEvent) event).getEvents()) {
+				// sent in one message, so at the same time
+				batched.setEnvelope(event.getEnvelope());
+				batched.setSendTime(event.getSendTimestamp(), event.getSendSequence());
+				accept(batched);
+			}
+			return;
+		}
+		if (event instanceof AckRollupRemoteApplicationEvent) {
+			AckRollupRemoteApplicationEvent rollup = (AckRollupRemoteApplicationEvent) event;
+			if (log.isDebugEnabled()) {
+				for (AckRollupRemoteApplicationEvent.Entry entry : rollup.getAcks()) {
+					if (entry.getOutcome() == Outcome.FAILED) {
+						log.debug("Event " + entry.getAckId() + " (" + entry.getEvent() + ") failed on "
+								+ rollup.getOriginService());
+					}
+				}
+			}
+			for (AckRemoteApplicationEvent ack : rollup.toAcks()) {
+				accept(ack);
+			}
+			return;
+		}
+		if (this.deduplicator == null) {
+			observe(event);
+			return;
+		}
+		// only ids that were not parsed go through their string form
+		EventId eventId = event.getEventId();
+		boolean received = (eventId != null) ? this.deduplicator.register(eventId)
+				: this.deduplicator.register(event.getId());
+		if (!received) {
+			if (log.isDebugEnabled()) {
+				log.debug("Dropping redelivered event from bus: " + event);
+			}
+			return;
+		}
+		try {
+			observe(event);
+		}
+		catch (RuntimeException ex) {
+			// let the broker redeliver it
+			if (eventId != null) {
+				this.deduplicator.forget(eventId);
+			}
+			else {
+				this.deduplicator.forget(event.getId());
+			}
+			throw ex;
+		}
+	}
+
+	private void observe(RemoteApplicationEvent event) {
+		this.observer.observeReceive(event, () -> consume(event));
+	}
+
+	private void consume(RemoteApplicationEvent event) {
+		if (event.getSendTimestamp() > 0) {
+			// clocks drift, a negative latency means it was close to zero
+			long latency = Math.max(0, System.currentTimeMillis() - event.getSendTimestamp());
+			this.metrics.eventPropagated(event.getOriginService(), BusEnvelope.getTypeId(event.getClass()),
+					Duration.ofMillis(latency));
+		}
 		if (event instanceof AckRemoteApplicationEvent) {
+			if (!this.serviceMatcher.isForSelf(event)) {
+				// addressed to another service, e.g. acked to its origin only
+				received(event, BusMetrics.Reception.FILTERED);
+				return;
+			}
+			received(event, BusMetrics.Reception.ACCEPTED);
+			if (this.ackTracker != null) {
+				this.ackTracker.acknowledge((AckRemoteApplicationEvent) event);
+			}
 			if (this.properties.getTrace().isEnabled() && !this.serviceMatcher.isFromSelf(event)
 					&& this.publisher != null) {
 				this.publisher.publishEvent(event);
@@ -66,16 +200,37 @@ public class BusConsumer implements Consumer<RemoteApplicationEvent> {
 			log.debug("Received remote event from bus: " + event);
 		}
 
-		if (this.serviceMatcher.isForSelf(event) && this.publisher != null) {
-			if (!this.serviceMatcher.isFromSelf(event)) {
-				this.publisher.publishEvent(event);
+		boolean forSelf = this.serviceMatcher.isForSelf(event);
+		boolean fromSelf = this.serviceMatcher.isFromSelf(event);
+		if (!forSelf) {
+			received(event, BusMetrics.Reception.FILTERED);
+		}
+		else {
+			received(event, fromSelf ? BusMetrics.Reception.SELF : BusMetrics.Reception.ACCEPTED);
+		}
+
+		if (forSelf && this.publisher != null) {
+			if (!fromSelf) {
+				try {
+					this.publisher.publishEvent(event);
+				}
+				catch (RuntimeException ex) {
+					if (shouldAck(event)) {
+						ack(event, null, false);
+					}
+					throw ex;
+				}
 			}
-			if (this.properties.getAck().isEnabled()) {
-				AckRemoteApplicationEvent ack = new AckRemoteApplicationEvent(this, this.serviceMatcher.getBusId(),
-						destinationFactory.getDestination(this.properties.getAck().getDestinationService()),
-						event.getDestinationService(), event.getId(), event.getClass());
-				this.busBridge.ifAvailable(bridge -> bridge.send(ack));
-				this.publisher.publishEvent(ack);
+			if (shouldAck(event)) {
+				CompletableFuture<String> refresh = (event instanceof RefreshRemoteApplicationEvent)
+						? ((RefreshRemoteApplicationEvent) event).getRefresh() : null;
+				if (refresh != null) {
+					// the refresh runs in the background, ack it when it is done
+					refresh.whenComplete((refreshId, ex) -> ack(event, refreshId, ex == null));
+				}
+				else {
+					ack(event, null, true);
+				}
 			}
 		}
 		if (this.properties.getTrace().isEnabled() && this.publisher != null) {
@@ -86,4 +241,70 @@ public class BusConsumer implements Consumer<RemoteApplicationEvent> {
 		}
 	}
 
+	private void ack(RemoteApplicationEvent event, String servedBy, boolean processed) {
+		AckRemoteApplicationEvent ack = createAck(event);
+		if (servedBy != null && !servedBy.equals(event.getId())) {
+			ack.setServedBy(servedBy);
+		}
+		if (!processed) {
+			if (this.ackRollup != null) {
+				// only a rollup can tell the origin about the failure
+				this.ackRollup.add(ack, Outcome.FAILED);
+			}
+			return;
+		}
+		if (this.ackRollup != null) {
+			this.ackRollup.add(ack, Outcome.PROCESSED);
+		}
+		else {
+			this.busBridge.ifAvailable(bridge -> bridge.send(ack));
+		}
+		if (this.ackTracker != null) {
+			// our own ack may never come back from the broker
+			this.ackTracker.acknowledge(ack);
+		}
+		this.publisher.publishEvent(ack);
+	}
+
+	private void received(RemoteApplicationEvent event, BusMetrics.Reception reception) {
+		this.metrics.eventReceived(BusEnvelope.getTypeId(event.getClass()), event.getDestinationService(), reception);
+	}
+
+	private AckRemoteApplicationEvent createAck(RemoteApplicationEvent event) {
+		return new AckRemoteApplicationEvent(this, this.serviceMatcher.getBusId(), getAckDestination(event),
+				event.getDestinationService(), event.getId(), event.getClass());
+	}
+
+	private boolean shouldAck(RemoteApplicationEvent event) {
+		BusProperties.Ack ack = this.properties.getAck();
+		if (!ack.isActive()) {
+			return false;
+		}
+		if (ack.getMode() == BusProperties.Ack.Mode.SAMPLED) {
+			return isSampled(this.serviceMatcher.getBusId(), event.getId(), ack.getSamplePercentage());
+		}
+		return true;
+	}
+
+	private Destination getAckDestination(RemoteApplicationEvent event) {
+		if (this.properties.getAck().getMode() == BusProperties.Ack.Mode.ORIGIN) {
+			return this.destinationFactory.getDestination(event.getOriginService());
+		}
+		return this.destinationFactory.getDestination(this.properties.getAck().getDestinationService());
+	}
+
+	/**
+	 * Whether an instance is in the sample that acks an event. The choice is stable for
+	 * a given instance and event, and independent between events, so that every
+	 * instance acks its share of them.
+	 */
+	static boolean isSampled(String busId, String eventId, int percentage) {
+		int hash = (busId + "/" + eventId).hashCode();
+		// spread the bits, String hashes of similar ids differ in the low bits only
+		hash ^= (hash >>> 16);
+		hash *= 0x45d9f3b;
+		hash ^= (hash >>> 16);
+		return Math.floorMod(hash, 100) < percentage;
+	}
+
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.util.StringUtils;
+
+/**
+ * Helpers for the envelope of a bus message: the headers that describe a
+ * {@link RemoteApplicationEvent} without having to deserialize its payload.
+ */
+public abstract class BusEnvelope {
+
+	/**
+	 * Placeholder returned by converters for messages whose envelope shows they can be
+	 * discarded without reading the payload.
+	 */
+	public static final RemoteApplicationEvent DISCARDED = new DiscardedRemoteApplicationEvent();
+
+	private static final AtomicLong sequence = new AtomicLong();
+
+	private BusEnvelope() {
+	}
+
+	/**
+	 * Build the envelope headers for the given event. Each call stamps the headers with
+	 * the current time and the next number in a sequence shared by the whole JVM.
+	 * @param event the event about to be sent
+	 * @return the headers to add to the outbound message
+	 */
+	public static Map<String, Object> getHeaders(RemoteApplicationEvent event) {
+		Map<String, Object> headers = new LinkedHashMap<>();
+		if (event.getOriginService() != null) {
+			headers.put(BusConstants.ORIGIN_SERVICE_HEADER, event.getOriginService());
+		}
+		if (event.getDestinationService() != null) {
+			headers.put(BusConstants.DESTINATION_SERVICE_HEADER, event.getDestinationService());
+		}
+		if (event.getId() != null) {
+			headers.put(BusConstants.ID_HEADER, event.getId());
+		}
+		headers.put(BusConstants.TYPE_HEADER, getTypeId(event.getClass()));
+		headers.put(BusConstants.TIMESTAMP_HEADER, System.currentTimeMillis());
+		headers.put(BusConstants.SEQUENCE_HEADER, sequence.incrementAndGet());
+		return headers;
+	}
+
+	/**
+	 * Attach the envelope headers to a received event, and copy the send time and
+	 * sequence number from them, if present.
+	 * @param event the event read from the message
+	 * @param headers the message headers
+	 * @see RemoteApplicationEvent#getEnvelope()
+	 * @see RemoteApplicationEvent#getSendTimestamp()
+	 */
+	public static void stamp(RemoteApplicationEvent event, Map<String, Object> headers) {
+		event.setEnvelope(headers);
+		long timestamp = getLongHeader(headers, BusConstants.TIMESTAMP_HEADER);
+		if (timestamp > 0) {
+			event.setSendTime(timestamp, getLongHeader(headers, BusConstants.SEQUENCE_HEADER));
+		}
+	}
+
+	private static long getLongHeader(Map<String, Object> headers, String name) {
+		Object value = headers.get(name);
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		String text = getHeader(headers, name);
+		if (text == null) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(text);
+		}
+		catch (NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Resolve the type id Jackson uses for the given event type: the value of
+	 * {@link JsonTypeName} if present, otherwise the unqualified class name.
+	 * @param type the event type
+	 * @return the type id
+	 */
+	public static String getTypeId(Class<?> type) {
+		JsonTypeName typeName = type.getAnnotation(JsonTypeName.class);
+		if (typeName != null && StringUtils.hasLength(typeName.value())) {
+			return typeName.value();
+		}
+		String name = type.getName();
+		return name.substring(name.lastIndexOf('.') + 1);
+	}
+
+	/**
+	 * Read a header as a String, tolerating binders that hand headers back as raw bytes.
+	 * @param headers the message headers
+	 * @param name the header name
+	 * @return the header value, or null if it is not present
+	 */
+	public static String getHeader(Map<String, Object> headers, String name) {
+		Object value = headers.get(name);
+		if (value instanceof byte[]) {
+			return new String((byte[]) value, StandardCharsets.UTF_8);
+		}
+		return (value != null) ? value.toString() : null;
+	}
+
+	public static boolean isDiscarded(RemoteApplicationEvent event) {
+		return event == DISCARDED;
+	}
+
+	@SuppressWarnings("serial")
+	private static final class DiscardedRemoteApplicationEvent extends RemoteApplicationEvent {
+
+		private DiscardedRemoteApplicationEvent() {
+			super(BusEnvelope.class, "", () -> "discarded");
+		}
+
+	}
+
+}
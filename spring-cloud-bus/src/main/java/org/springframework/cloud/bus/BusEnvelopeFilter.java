@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.util.Map;
+
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent;
+
+/**
+ * Decides from the envelope headers alone whether an inbound bus message would be
+ * ignored by the {@link BusConsumer}, so that its payload never has to be deserialized.
+ * Messages without envelope headers (e.g. from older nodes) are never discarded.
+ */
+public class BusEnvelopeFilter {
+
+	private static final String ACK_TYPE_ID = BusEnvelope.getTypeId(AckRemoteApplicationEvent.class);
+
+	private static final String ACK_ROLLUP_TYPE_ID = BusEnvelope.getTypeId(AckRollupRemoteApplicationEvent.class);
+
+	private final ServiceMatcher serviceMatcher;
+
+	private final BusProperties properties;
+
+	private final AckTracker ackTracker;
+
+	public BusEnvelopeFilter(ServiceMatcher serviceMatcher, BusProperties properties) {
+		this(serviceMatcher, properties, null);
+	}
+
+	public BusEnvelopeFilter(ServiceMatcher serviceMatcher, BusProperties properties, AckTracker ackTracker) {
+		this.serviceMatcher = serviceMatcher;
+		this.properties = properties;
+		this.ackTracker = ackTracker;
+	}
+
+	/**
+	 * Whether a message with the given headers can be dropped without looking at its
+	 * payload.
+	 * @param headers the inbound message headers
+	 * @return true if the consumer would not act on the message
+	 */
+	public boolean shouldDiscard(Map<String, Object> headers) {
+		if (!(this.serviceMatcher instanceof PathServiceMatcher)) {
+			// custom matchers only know how to match whole events
+			return false;
+		}
+		PathServiceMatcher matcher = (PathServiceMatcher) this.serviceMatcher;
+		String type = BusEnvelope.getHeader(headers, BusConstants.TYPE_HEADER);
+		String origin = BusEnvelope.getHeader(headers, BusConstants.ORIGIN_SERVICE_HEADER);
+		String destination = BusEnvelope.getHeader(headers, BusConstants.DESTINATION_SERVICE_HEADER);
+		if (type == null || origin == null || destination == null) {
+			return false;
+		}
+		boolean trace = this.properties.getTrace().isEnabled();
+		if (ACK_TYPE_ID.equals(type) || ACK_ROLLUP_TYPE_ID.equals(type)) {
+			if (matcher.isFromSelf(origin) || !matcher.isForSelf(destination)) {
+				// our own acks are handled before they are sent
+				return true;
+			}
+			// acks are only published locally for tracing or collected while waiting for
+			// them
+			return !trace && !isTrackingAcks();
+		}
+		if (trace) {
+			// every event is recorded as sent when tracing, whoever it is for
+			return false;
+		}
+		if (!matcher.isForSelf(destination)) {
+			return true;
+		}
+		// events from self are still acked
+		return !this.properties.getAck().isActive() && matcher.isFromSelf(origin);
+	}
+
+	private boolean isTrackingAcks() {
+		return this.ackTracker != null && this.ackTracker.isTracking();
+	}
+
+}
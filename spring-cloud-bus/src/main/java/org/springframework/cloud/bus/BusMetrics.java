@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * Callbacks from the stages of the bus pipeline, for recording metrics. All methods do
+ * nothing by default. See {@link MicrometerBusMetrics} for the implementation used when
+ * Micrometer is on the classpath.
+ */
+public interface BusMetrics {
+
+	/**
+	 * An instance that records nothing.
+	 */
+	BusMetrics NONE = new BusMetrics() {
+	};
+
+	/**
+	 * Called after an event was handed to the broker, or failed to be.
+	 * @param event the event sent
+	 * @param durationNanos how long the send took
+	 * @param success whether the broker accepted the event
+	 */
+	default void eventSent(RemoteApplicationEvent event, long durationNanos, boolean success) {
+	}
+
+	/**
+	 * Called after the payload of an inbound message was deserialized.
+	 * @param typeId the type id of the event read
+	 * @param payloadSize the size of the payload in bytes
+	 * @param durationNanos how long deserialization took
+	 */
+	default void eventRead(String typeId, int payloadSize, long durationNanos) {
+	}
+
+	/**
+	 * Called for every event received, once the consumer decided what to do with it.
+	 * @param typeId the type id of the event
+	 * @param destination the destination of the event
+	 * @param reception what was done with the event
+	 */
+	default void eventReceived(String typeId, String destination, Reception reception) {
+	}
+
+	/**
+	 * Called for every event received with the time its origin sent it.
+	 * @param origin the origin service of the event
+	 * @param typeId the type id of the event
+	 * @param latency the time from sending to receiving the event, as measured by the
+	 * wall clocks of the two instances
+	 */
+	default void eventPropagated(String origin, String typeId, Duration latency) {
+	}
+
+	/**
+	 * Called when an inbound message names an event type that is not known locally.
+	 * @param typeId the type id of the event
+	 */
+	default void unknownEvent(String typeId) {
+	}
+
+	/**
+	 * Called when an ack arrives for an event sent by this instance.
+	 * @param typeId the type id of the acknowledged event
+	 * @param roundTrip the time from sending the event to receiving the ack
+	 */
+	default void ackReceived(String typeId, Duration roundTrip) {
+	}
+
+	/**
+	 * Called after a refresh triggered from the bus ran.
+	 * @param durationNanos how long the refresh took, not counting any delay before it
+	 * @param success whether the refresh completed without an error
+	 */
+	default void refreshed(long durationNanos, boolean success) {
+	}
+
+	/**
+	 * What the consumer did with a received event.
+	 */
+	enum Reception {
+
+		/**
+		 * Published to the local listeners, or collected if it is an ack.
+		 */
+		ACCEPTED,
+
+		/**
+		 * Addressed to other services, so ignored.
+		 */
+		FILTERED,
+
+		/**
+		 * Sent by this instance, so only acked.
+		 */
+		SELF
+
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * Wraps the sending and the processing of bus events, e.g. to trace them. The default
+ * methods only run the given callbacks. See {@link MicrometerBusObserver} for the
+ * implementation used when a Micrometer {@code ObservationRegistry} is available.
+ */
+public interface BusObserver {
+
+	/**
+	 * An instance that observes nothing.
+	 */
+	BusObserver NONE = new BusObserver() {
+	};
+
+	/**
+	 * Send an event.
+	 * @param <T> the result of the send
+	 * @param event the event to send
+	 * @param headers the headers of the outbound message, which may be added to (e.g.
+	 * to propagate a trace) before the send is called
+	 * @param send the send itself
+	 * @return the result of the send
+	 */
+	default <T> T observeSend(RemoteApplicationEvent event, Map<String, Object> headers, Supplier<T> send) {
+		return send.get();
+	}
+
+	/**
+	 * Capture the context of the caller of a send that is completed on another thread,
+	 * e.g. by an asynchronous or batching sender.
+	 * @return an opaque context to pass to
+	 * {@link #observeSend(RemoteApplicationEvent, Map, Object, Supplier)}, or null
+	 */
+	default Object captureSendContext() {
+		return null;
+	}
+
+	/**
+	 * Send an event on behalf of a caller that may have been on another thread.
+	 * @param <T> the result of the send
+	 * @param event the event to send
+	 * @param headers the headers of the outbound message
+	 * @param context the context captured when the send was requested, or null
+	 * @param send the send itself
+	 * @return the result of the send
+	 * @see #captureSendContext()
+	 */
+	default <T> T observeSend(RemoteApplicationEvent event, Map<String, Object> headers, Object context,
+			Supplier<T> send) {
+		return observeSend(event, headers, send);
+	}
+
+	/**
+	 * Process a received event.
+	 * @param event the event received, with the headers of its message
+	 * @param receive the processing itself
+	 * @see RemoteApplicationEvent#getEnvelope()
+	 */
+	default void observeReceive(RemoteApplicationEvent event, Runnable receive) {
+		receive.run();
+	}
+
+}
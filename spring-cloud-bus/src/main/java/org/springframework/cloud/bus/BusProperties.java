@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.bus;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.core.style.ToStringCreator;
 import org.springframework.util.MimeType;
@@ -43,6 +45,21 @@ public class BusProperties {
 	 */
 	private final Trace trace = new Trace();
 
+	/**
+	 * Properties related to sending events.
+	 */
+	private final Send send = new Send();
+
+	/**
+	 * Properties related to refresh events.
+	 */
+	private final Refresh refresh = new Refresh();
+
+	/**
+	 * Properties related to dropping redelivered events.
+	 */
+	private final Dedup dedup = new Dedup();
+
 	/**
 	 * Name of Spring Cloud Stream destination for messages.
 	 */
@@ -71,6 +88,18 @@ public class BusProperties {
 		return this.trace;
 	}
 
+	public Send getSend() {
+		return this.send;
+	}
+
+	public Refresh getRefresh() {
+		return this.refresh;
+	}
+
+	public Dedup getDedup() {
+		return this.dedup;
+	}
+
 	public String getDestination() {
 		return this.destination;
 	}
@@ -107,6 +136,9 @@ public class BusProperties {
 	public String toString() {
 		return new ToStringCreator(this).append("ack", ack)
 			.append("trace", trace)
+			.append("send", send)
+			.append("refresh", refresh)
+			.append("dedup", dedup)
 			.append("destination", destination)
 			.append("id", id)
 			.append("contentType", contentType)
@@ -130,6 +162,33 @@ public class BusProperties {
 		 */
 		private String destinationService;
 
+		/**
+		 * Which instances ack the events they receive, and to whom.
+		 */
+		private Mode mode = Mode.ALL;
+
+		/**
+		 * Percentage of the receiving instances that ack an event in sampled mode.
+		 */
+		private int samplePercentage = 10;
+
+		/**
+		 * Maximum number of sent events whose acks are kept in memory, oldest evicted
+		 * first.
+		 */
+		private int trackingLimit = 1024;
+
+		/**
+		 * How long to keep waiting for the acks of a traced event. Also the longest
+		 * the bus endpoints can be asked to await acks for.
+		 */
+		private Duration trackingTimeout = Duration.ofSeconds(30);
+
+		/**
+		 * Properties related to sending the acks of a node in rollups.
+		 */
+		private final Rollup rollup = new Rollup();
+
 		public boolean isEnabled() {
 			return this.enabled;
 		}
@@ -146,13 +205,144 @@ public class BusProperties {
 			this.destinationService = destinationService;
 		}
 
+		public Mode getMode() {
+			return this.mode;
+		}
+
+		public void setMode(Mode mode) {
+			this.mode = mode;
+		}
+
+		public int getSamplePercentage() {
+			return this.samplePercentage;
+		}
+
+		public void setSamplePercentage(int samplePercentage) {
+			this.samplePercentage = samplePercentage;
+		}
+
+		public int getTrackingLimit() {
+			return this.trackingLimit;
+		}
+
+		public void setTrackingLimit(int trackingLimit) {
+			this.trackingLimit = trackingLimit;
+		}
+
+		public Duration getTrackingTimeout() {
+			return this.trackingTimeout;
+		}
+
+		public void setTrackingTimeout(Duration trackingTimeout) {
+			this.trackingTimeout = trackingTimeout;
+		}
+
+		public Rollup getRollup() {
+			return this.rollup;
+		}
+
 		@Override
 		public String toString() {
 			return new ToStringCreator(this).append("enabled", enabled)
 				.append("destinationService", destinationService)
+				.append("mode", mode)
+				.append("samplePercentage", samplePercentage)
+				.append("trackingLimit", trackingLimit)
+				.append("trackingTimeout", trackingTimeout)
+				.append("rollup", rollup)
 				.toString();
 		}
 
+		/**
+		 * Whether acks are sent at all.
+		 * @return false if acks are switched off or the mode is {@link Mode#OFF}
+		 */
+		public boolean isActive() {
+			return this.enabled && this.mode != Mode.OFF;
+		}
+
+		/**
+		 * Spring Cloud Bus properties related to ack rollups.
+		 */
+		public static class Rollup {
+
+			/**
+			 * Flag to buffer the acks of this node and send them as a single rollup per
+			 * window (default off).
+			 */
+			private boolean enabled = false;
+
+			/**
+			 * How long acks are buffered before they are sent.
+			 */
+			private Duration window = Duration.ofMillis(100);
+
+			/**
+			 * Maximum number of acks in a rollup, a full buffer is sent straight away.
+			 */
+			private int maxSize = 500;
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public Duration getWindow() {
+				return this.window;
+			}
+
+			public void setWindow(Duration window) {
+				this.window = window;
+			}
+
+			public int getMaxSize() {
+				return this.maxSize;
+			}
+
+			public void setMaxSize(int maxSize) {
+				this.maxSize = maxSize;
+			}
+
+			@Override
+			public String toString() {
+				return new ToStringCreator(this).append("enabled", enabled)
+					.append("window", window)
+					.append("maxSize", maxSize)
+					.toString();
+			}
+
+		}
+
+		/**
+		 * Ways of acking received events.
+		 */
+		public enum Mode {
+
+			/**
+			 * Every receiving instance acks to the destination service.
+			 */
+			ALL,
+
+			/**
+			 * Every receiving instance acks to the service the event came from only.
+			 */
+			ORIGIN,
+
+			/**
+			 * A sample of the receiving instances acks to the destination service.
+			 */
+			SAMPLED,
+
+			/**
+			 * No acks are sent.
+			 */
+			OFF
+
+		}
+
 	}
 
 	/**
@@ -180,4 +370,358 @@ public class BusProperties {
 
 	}
 
+	/**
+	 * Spring Cloud Bus properties related to refresh events.
+	 */
+	public static class Refresh {
+
+		/**
+		 * Flag to run refreshes in the background and collapse refresh requests that
+		 * arrive while one is pending or running into a single follow-up (default off).
+		 * Refresh requests are acked once the refresh serving them has run.
+		 */
+		private boolean coalesce = false;
+
+		/**
+		 * Maximum time to delay a refresh by, so that instances receiving the same
+		 * refresh spread their load over this window. Setting it longer than zero also
+		 * runs refreshes in the background.
+		 */
+		private Duration delayWindow = Duration.ZERO;
+
+		/**
+		 * How the delay of each instance is chosen within the delay window.
+		 */
+		private DelayStrategy delayStrategy = DelayStrategy.RANDOM;
+
+		/**
+		 * Properties related to refreshing instances in waves.
+		 */
+		private final Rolling rolling = new Rolling();
+
+		public boolean isCoalesce() {
+			return this.coalesce;
+		}
+
+		public void setCoalesce(boolean coalesce) {
+			this.coalesce = coalesce;
+		}
+
+		public Duration getDelayWindow() {
+			return this.delayWindow;
+		}
+
+		public void setDelayWindow(Duration delayWindow) {
+			this.delayWindow = delayWindow;
+		}
+
+		public DelayStrategy getDelayStrategy() {
+			return this.delayStrategy;
+		}
+
+		public void setDelayStrategy(DelayStrategy delayStrategy) {
+			this.delayStrategy = delayStrategy;
+		}
+
+		public Rolling getRolling() {
+			return this.rolling;
+		}
+
+		@Override
+		public String toString() {
+			return new ToStringCreator(this).append("coalesce", coalesce)
+				.append("delayWindow", delayWindow)
+				.append("delayStrategy", delayStrategy)
+				.append("rolling", rolling)
+				.toString();
+		}
+
+		/**
+		 * Spring Cloud Bus properties related to rolling refreshes.
+		 */
+		public static class Rolling {
+
+			/**
+			 * How long to collect acks from the instances matching the destination before
+			 * the first wave is planned.
+			 */
+			private Duration discoveryTimeout = Duration.ofSeconds(5);
+
+			/**
+			 * Maximum time to wait for the instances of a wave to acknowledge their refresh
+			 * before the rollout is stopped.
+			 */
+			private Duration waveTimeout = Duration.ofSeconds(60);
+
+			/**
+			 * Percentage of the instances in a wave that must acknowledge their refresh
+			 * before the next wave starts.
+			 */
+			private int ackPercentage = 100;
+
+			public Duration getDiscoveryTimeout() {
+				return this.discoveryTimeout;
+			}
+
+			public void setDiscoveryTimeout(Duration discoveryTimeout) {
+				this.discoveryTimeout = discoveryTimeout;
+			}
+
+			public Duration getWaveTimeout() {
+				return this.waveTimeout;
+			}
+
+			public void setWaveTimeout(Duration waveTimeout) {
+				this.waveTimeout = waveTimeout;
+			}
+
+			public int getAckPercentage() {
+				return this.ackPercentage;
+			}
+
+			public void setAckPercentage(int ackPercentage) {
+				this.ackPercentage = ackPercentage;
+			}
+
+			@Override
+			public String toString() {
+				return new ToStringCreator(this).append("discoveryTimeout", discoveryTimeout)
+					.append("waveTimeout", waveTimeout)
+					.append("ackPercentage", ackPercentage)
+					.toString();
+			}
+
+		}
+
+		/**
+		 * Strategies for choosing the refresh delay of an instance.
+		 */
+		public enum DelayStrategy {
+
+			/**
+			 * A new random delay for every refresh.
+			 */
+			RANDOM,
+
+			/**
+			 * A fixed delay derived from a hash of the bus id.
+			 */
+			HASHED
+
+		}
+
+	}
+
+	/**
+	 * Spring Cloud Bus properties related to sending events.
+	 */
+	public static class Send {
+
+		/**
+		 * Flag to send events from a dedicated sender thread instead of the publishing
+		 * thread (default off).
+		 */
+		private boolean async = false;
+
+		/**
+		 * Maximum number of events waiting to be sent in async mode.
+		 */
+		private int queueCapacity = 1024;
+
+		/**
+		 * What to do when an event is sent in async mode and the queue is full.
+		 */
+		private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+		/**
+		 * Maximum time to wait on shutdown for queued events to be sent in async mode.
+		 */
+		private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+		/**
+		 * Properties related to batching outbound events.
+		 */
+		private final Batch batch = new Batch();
+
+		public boolean isAsync() {
+			return this.async;
+		}
+
+		public void setAsync(boolean async) {
+			this.async = async;
+		}
+
+		public int getQueueCapacity() {
+			return this.queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public OverflowPolicy getOverflowPolicy() {
+			return this.overflowPolicy;
+		}
+
+		public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+			this.overflowPolicy = overflowPolicy;
+		}
+
+		public Duration getShutdownTimeout() {
+			return this.shutdownTimeout;
+		}
+
+		public void setShutdownTimeout(Duration shutdownTimeout) {
+			this.shutdownTimeout = shutdownTimeout;
+		}
+
+		public Batch getBatch() {
+			return this.batch;
+		}
+
+		@Override
+		public String toString() {
+			return new ToStringCreator(this).append("async", async)
+				.append("queueCapacity", queueCapacity)
+				.append("overflowPolicy", overflowPolicy)
+				.append("shutdownTimeout", shutdownTimeout)
+				.append("batch", batch)
+				.toString();
+		}
+
+		/**
+		 * Spring Cloud Bus properties related to batching outbound events.
+		 */
+		public static class Batch {
+
+			/**
+			 * Flag to pack events sent close together into a single bus message (default
+			 * off). Only nodes that understand batches can read them. Events of a type
+			 * the receiver does not know are read as unknown events, without losing the
+			 * rest of the batch.
+			 */
+			private boolean enabled = false;
+
+			/**
+			 * Maximum number of events in one batch.
+			 */
+			private int maxSize = 100;
+
+			/**
+			 * Maximum time an event waits for other events to share its batch.
+			 */
+			private Duration linger = Duration.ofMillis(20);
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public int getMaxSize() {
+				return this.maxSize;
+			}
+
+			public void setMaxSize(int maxSize) {
+				this.maxSize = maxSize;
+			}
+
+			public Duration getLinger() {
+				return this.linger;
+			}
+
+			public void setLinger(Duration linger) {
+				this.linger = linger;
+			}
+
+			@Override
+			public String toString() {
+				return new ToStringCreator(this).append("enabled", enabled)
+					.append("maxSize", maxSize)
+					.append("linger", linger)
+					.toString();
+			}
+
+		}
+
+		/**
+		 * Policies for a full outbound queue.
+		 */
+		public enum OverflowPolicy {
+
+			/**
+			 * Block the publishing thread until there is room in the queue.
+			 */
+			BLOCK,
+
+			/**
+			 * Drop the oldest queued event to make room.
+			 */
+			DROP_OLDEST,
+
+			/**
+			 * Reject the new event.
+			 */
+			FAIL
+
+		}
+
+	}
+
+	/**
+	 * Spring Cloud Bus properties related to dropping redelivered events.
+	 */
+	public static class Dedup {
+
+		/**
+		 * Flag to drop events whose id was already received (default off).
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * How long the id of a received event is remembered.
+		 */
+		private Duration window = Duration.ofMinutes(5);
+
+		/**
+		 * Maximum number of event ids remembered, oldest forgotten first.
+		 */
+		private int maxSize = 10000;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Duration getWindow() {
+			return this.window;
+		}
+
+		public void setWindow(Duration window) {
+			this.window = window;
+		}
+
+		public int getMaxSize() {
+			return this.maxSize;
+		}
+
+		public void setMaxSize(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		public String toString() {
+			return new ToStringCreator(this).append("enabled", enabled)
+				.append("window", window)
+				.append("maxSize", maxSize)
+				.toString();
+		}
+
+	}
+
 }
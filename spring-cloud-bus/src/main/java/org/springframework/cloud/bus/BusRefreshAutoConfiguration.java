@@ -16,18 +16,38 @@
 
 package org.springframework.cloud.bus;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.cloud.bus.endpoint.RefreshBusEndpoint;
+import org.springframework.cloud.bus.endpoint.RollingRefresh;
+import org.springframework.cloud.bus.event.CoalescingRefresher;
 import org.springframework.cloud.bus.event.Destination;
 import org.springframework.cloud.bus.event.RefreshListener;
 import org.springframework.cloud.context.refresh.ContextRefresher;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 
 /**
  * @author Ryan Baxter
@@ -40,8 +60,91 @@ public class BusRefreshAutoConfiguration {
 	@Bean
 	@ConditionalOnProperty(value = "spring.cloud.bus.refresh.enabled", matchIfMissing = true)
 	@ConditionalOnBean(ContextRefresher.class)
-	public RefreshListener refreshListener(ContextRefresher contextRefresher, ServiceMatcher serviceMatcher) {
-		return new RefreshListener(contextRefresher, serviceMatcher);
+	public RefreshListener refreshListener(ContextRefresher contextRefresher, ServiceMatcher serviceMatcher,
+			ObjectProvider<CoalescingRefresher> coalescingRefresher, ObjectProvider<BusMetrics> metrics) {
+		CoalescingRefresher refresher = coalescingRefresher.getIfAvailable();
+		RefreshListener listener = (refresher != null) ? new RefreshListener(refresher, serviceMatcher)
+				: new RefreshListener(contextRefresher, serviceMatcher);
+		metrics.ifAvailable(listener::setMetrics);
+		return listener;
+	}
+
+	@Bean
+	@Conditional(OnBackgroundRefreshCondition.class)
+	@ConditionalOnBean(ContextRefresher.class)
+	@ConditionalOnMissingBean
+	public CoalescingRefresher coalescingRefresher(ContextRefresher contextRefresher, BusProperties bus,
+			ObjectProvider<BusMetrics> metrics) {
+		BusProperties.Refresh refresh = bus.getRefresh();
+		Supplier<Duration> delay = (refresh.getDelayStrategy() == BusProperties.Refresh.DelayStrategy.HASHED)
+				? CoalescingRefresher.hashedDelay(bus.getId(), refresh.getDelayWindow())
+				: CoalescingRefresher.randomDelay(refresh.getDelayWindow());
+		CoalescingRefresher refresher = new CoalescingRefresher(contextRefresher, delay);
+		metrics.ifAvailable(refresher::setMetrics);
+		return refresher;
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	protected static class BusRefreshMetricsConfiguration {
+
+		@Bean
+		public MeterBinder busRefreshDelayMetrics(ObjectProvider<CoalescingRefresher> coalescingRefresher) {
+			return registry -> coalescingRefresher.ifAvailable(refresher -> {
+				TimeGauge
+					.builder("spring.cloud.bus.refresh.delay", refresher, TimeUnit.MILLISECONDS,
+							r -> r.getLastDelay().toMillis())
+					.description("Delay chosen for the most recent bus refresh")
+					.register(registry);
+				TimeGauge
+					.builder("spring.cloud.bus.refresh.start.time", refresher, TimeUnit.MILLISECONDS,
+							CoalescingRefresher::getLastStartTime)
+					.description("Time the most recent bus refresh started, since the Unix epoch")
+					.register(registry);
+			});
+		}
+
+	}
+
+	static class OnBackgroundRefreshCondition extends AnyNestedCondition {
+
+		OnBackgroundRefreshCondition() {
+			super(ConfigurationPhase.REGISTER_BEAN);
+		}
+
+		@ConditionalOnProperty("spring.cloud.bus.refresh.coalesce")
+		static class Coalesce {
+
+		}
+
+		@Conditional(OnPositiveDelayWindowCondition.class)
+		static class Delayed {
+
+		}
+
+	}
+
+	/**
+	 * Matches a delay window longer than zero, so that {@code delay-window=0s} does not
+	 * move refreshes to the background.
+	 */
+	static class OnPositiveDelayWindowCondition extends SpringBootCondition {
+
+		private static final String PROPERTY = BusProperties.PREFIX + ".refresh.delay-window";
+
+		@Override
+		public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			ConditionMessage.Builder message = ConditionMessage.forCondition("Bus refresh delay window");
+			Duration window = Binder.get(context.getEnvironment()).bind(PROPERTY, Duration.class).orElse(null);
+			if (window == null) {
+				return ConditionOutcome.noMatch(message.didNotFind("property").items(PROPERTY));
+			}
+			if (window.isNegative() || window.isZero()) {
+				return ConditionOutcome.noMatch(message.because(PROPERTY + " is " + window));
+			}
+			return ConditionOutcome.match(message.found("property").items(PROPERTY));
+		}
+
 	}
 
 	@Configuration(proxyBeanMethods = false)
@@ -52,8 +155,14 @@ public class BusRefreshAutoConfiguration {
 		@Bean
 		@ConditionalOnAvailableEndpoint
 		public RefreshBusEndpoint refreshBusEndpoint(ApplicationEventPublisher publisher, BusProperties bus,
-				Destination.Factory destinationFactory) {
-			return new RefreshBusEndpoint(publisher, bus.getId(), destinationFactory);
+				Destination.Factory destinationFactory, ObjectProvider<AckTracker> ackTracker) {
+			AckTracker tracker = ackTracker.getIfAvailable();
+			RollingRefresh rollingRefresh = (tracker != null) ? new RollingRefresh(publisher, bus.getId(),
+					destinationFactory, tracker, bus.getRefresh().getRolling(), bus.getAck()) : null;
+			RefreshBusEndpoint endpoint = new RefreshBusEndpoint(publisher, bus.getId(), destinationFactory,
+					rollingRefresh);
+			endpoint.setAckTracker(tracker);
+			return endpoint;
 		}
 
 	}
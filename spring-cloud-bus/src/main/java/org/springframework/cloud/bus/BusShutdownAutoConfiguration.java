@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.bus;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -46,8 +47,10 @@ public class BusShutdownAutoConfiguration {
 
 		@Bean
 		public ShutdownBusEndpoint shutdownBusEndpoint(ApplicationEventPublisher publisher, BusProperties bus,
-				Destination.Factory destinationFactory) {
-			return new ShutdownBusEndpoint(publisher, bus.getId(), destinationFactory);
+				Destination.Factory destinationFactory, ObjectProvider<AckTracker> ackTracker) {
+			ShutdownBusEndpoint endpoint = new ShutdownBusEndpoint(publisher, bus.getId(), destinationFactory);
+			endpoint.setAckTracker(ackTracker.getIfAvailable());
+			return endpoint;
 		}
 
 	}
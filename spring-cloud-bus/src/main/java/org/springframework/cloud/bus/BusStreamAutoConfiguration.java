@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.bus;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -38,8 +39,12 @@ public class BusStreamAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean(BusBridge.class)
-	public StreamBusBridge streamBusBridge(StreamBridge streamBridge, BusProperties properties) {
-		return new StreamBusBridge(streamBridge, properties);
+	public StreamBusBridge streamBusBridge(StreamBridge streamBridge, BusProperties properties,
+			ObjectProvider<BusMetrics> metrics, ObjectProvider<BusObserver> observer) {
+		StreamBusBridge bridge = new StreamBusBridge(streamBridge, properties);
+		metrics.ifAvailable(bridge::setMetrics);
+		observer.ifAvailable(bridge::setObserver);
+		return bridge;
 	}
 
 }
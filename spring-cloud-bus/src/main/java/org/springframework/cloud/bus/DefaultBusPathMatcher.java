@@ -22,6 +22,7 @@ import java.util.Map;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
 
@@ -41,23 +42,58 @@ public class DefaultBusPathMatcher implements PathMatcher {
 
 	private static final Log log = LogFactory.getLog(DefaultBusPathMatcher.class);
 
+	private static final String[] NO_VARIANTS = new String[0];
+
+	private static final int CACHE_LIMIT = 256;
+
 	private final PathMatcher delagateMatcher;
 
+	private final ConcurrentLruCache<String, String[]> profileVariants = new ConcurrentLruCache<>(CACHE_LIMIT,
+			this::expandProfiles);
+
 	public DefaultBusPathMatcher(PathMatcher delagateMatcher) {
 		this.delagateMatcher = delagateMatcher;
 	}
 
 	protected boolean matchMultiProfile(String pattern, String idToMatch) {
 
-		if (log.isDebugEnabled()) {
-			log.debug("matchMultiProfile : " + pattern + ", " + idToMatch);
+		if (log.isTraceEnabled()) {
+			log.trace("matchMultiProfile : " + pattern + ", " + idToMatch);
+		}
+
+		if (idToMatch == null) {
+			return false;
+		}
+
+		// the delegate match was originally false, so with no variants that is final
+		for (String id : this.profileVariants.get(idToMatch)) {
+			if (this.delagateMatcher.match(pattern, id)) {
+				if (log.isTraceEnabled()) {
+					log.trace("matched true");
+				}
+				return true;
+			}
 		}
 
+		if (log.isTraceEnabled()) {
+			log.trace("matched false");
+		}
+		return false;
+	}
+
+	/**
+	 * Expand an id with comma separated profiles into one id per profile. Ids are fixed
+	 * per application instance so this is only computed once per id.
+	 * @param idToMatch the id to expand
+	 * @return the candidate ids with a single profile, empty if there is nothing to
+	 * expand
+	 */
+	private String[] expandProfiles(String idToMatch) {
 		// parse the id
 		String[] tokens = tokenizeToStringArray(idToMatch, ":");
 		if (tokens.length <= 1) {
 			// no parts, default to delegate which already returned false;
-			return false;
+			return NO_VARIANTS;
 		}
 		String selfProfiles = tokens[1];
 
@@ -65,9 +101,8 @@ public class DefaultBusPathMatcher implements PathMatcher {
 		String[] profiles = tokenizeToStringArray(selfProfiles, ",");
 
 		if (profiles.length == 1) {
-			// there aren't multiple profiles to check, the delegate match was
-			// originally false so return what delegate determined
-			return false;
+			// there aren't multiple profiles to check
+			return NO_VARIANTS;
 		}
 
 		// gather candidate ids with a single profile rather than a comma separated list
@@ -81,20 +116,7 @@ public class DefaultBusPathMatcher implements PathMatcher {
 			newTokens[1] = profile;
 			idsWithSingleProfile[i] = StringUtils.arrayToDelimitedString(newTokens, ":");
 		}
-
-		for (String id : idsWithSingleProfile) {
-			if (this.delagateMatcher.match(pattern, id)) {
-				if (log.isDebugEnabled()) {
-					log.debug("matched true");
-				}
-				return true;
-			}
-		}
-
-		if (log.isDebugEnabled()) {
-			log.debug("matched false");
-		}
-		return false;
+		return idsWithSingleProfile;
 	}
 
 	@Override
@@ -104,8 +126,8 @@ public class DefaultBusPathMatcher implements PathMatcher {
 
 	@Override
 	public boolean match(String pattern, String path) {
-		if (log.isDebugEnabled()) {
-			log.debug("In match: " + pattern + ", " + path);
+		if (log.isTraceEnabled()) {
+			log.trace("In match: " + pattern + ", " + path);
 		}
 		if (!this.delagateMatcher.match(pattern, path)) {
 			return matchMultiProfile(pattern, path);
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.cloud.bus.event.EventId;
+import org.springframework.util.Assert;
+
+/**
+ * Remembers the ids of received events for a limited time, so that events redelivered by
+ * the broker (e.g. after a consumer rebalance or a requeue) can be dropped. Ids that
+ * {@link EventId#parse(String) parse} are kept as two longs rather than as strings.
+ */
+public class EventDeduplicator {
+
+	private final Map<Object, Long> seen = new LinkedHashMap<>();
+
+	private final AtomicLong duplicates = new AtomicLong();
+
+	private final long window;
+
+	private final int maxSize;
+
+	private final LongSupplier nanoTime;
+
+	public EventDeduplicator(Duration window, int maxSize) {
+		this(window, maxSize, System::nanoTime);
+	}
+
+	EventDeduplicator(Duration window, int maxSize, LongSupplier nanoTime) {
+		Assert.isTrue(maxSize > 0, "Max size must be positive");
+		this.window = window.toNanos();
+		this.maxSize = maxSize;
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * Record an event id as received.
+	 * @param id the id of the event
+	 * @return false if the id was already received within the window
+	 */
+	public boolean register(EventId id) {
+		if (id == null) {
+			return true;
+		}
+		return registerKey(id);
+	}
+
+	/**
+	 * Record an event id as received, parsing it if it is in a known form. Prefer
+	 * {@link #register(EventId)} for ids that are already parsed.
+	 * @param id the id of the event
+	 * @return false if the id was already received within the window
+	 */
+	public boolean register(String id) {
+		if (id == null) {
+			return true;
+		}
+		return registerKey(toKey(id));
+	}
+
+	/**
+	 * Forget an event id, e.g. because processing failed and the broker should be able
+	 * to deliver it again.
+	 * @param id the id of the event
+	 */
+	public void forget(EventId id) {
+		if (id == null) {
+			return;
+		}
+		forgetKey(id);
+	}
+
+	/**
+	 * Forget an event id, e.g. because processing failed and the broker should be able
+	 * to deliver it again.
+	 * @param id the id of the event
+	 */
+	public void forget(String id) {
+		if (id == null) {
+			return;
+		}
+		forgetKey(toKey(id));
+	}
+
+	private boolean registerKey(Object key) {
+		long now = this.nanoTime.getAsLong();
+		synchronized (this.seen) {
+			expire(now);
+			if (this.seen.containsKey(key)) {
+				this.duplicates.incrementAndGet();
+				return false;
+			}
+			this.seen.put(key, now);
+			if (this.seen.size() > this.maxSize) {
+				Iterator<Object> oldest = this.seen.keySet().iterator();
+				oldest.next();
+				oldest.remove();
+			}
+			return true;
+		}
+	}
+
+	private void forgetKey(Object key) {
+		synchronized (this.seen) {
+			this.seen.remove(key);
+		}
+	}
+
+	/**
+	 * @return the number of duplicates dropped so far
+	 */
+	public long getDuplicates() {
+		return this.duplicates.get();
+	}
+
+	/**
+	 * @return the number of event ids currently remembered
+	 */
+	public int size() {
+		synchronized (this.seen) {
+			return this.seen.size();
+		}
+	}
+
+	private void expire(long now) {
+		// ids are inserted in time order, so the expired ones are at the head
+		Iterator<Long> times = this.seen.values().iterator();
+		while (times.hasNext() && now - times.next() > this.window) {
+			times.remove();
+		}
+	}
+
+	private static Object toKey(String id) {
+		EventId eventId = EventId.parse(id);
+		return (eventId != null) ? eventId : id;
+	}
+
+}
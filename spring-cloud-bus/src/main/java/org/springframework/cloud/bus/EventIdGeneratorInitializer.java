@@ -0,0 +1,49 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cloud.bus.event.EventIdGenerator;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.util.Assert;
+
+/**
+ * Installs an {@link EventIdGenerator} bean as the generator of new remote event ids,
+ * and restores the default when the context is closed. The generator is shared by the
+ * whole JVM, so it should only be declared once.
+ */
+public class EventIdGeneratorInitializer implements SmartInitializingSingleton, DisposableBean {
+
+	private final EventIdGenerator generator;
+
+	public EventIdGeneratorInitializer(EventIdGenerator generator) {
+		Assert.notNull(generator, "generator may not be null");
+		this.generator = generator;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		RemoteApplicationEvent.setIdGenerator(this.generator);
+	}
+
+	@Override
+	public void destroy() {
+		RemoteApplicationEvent.setIdGenerator(EventIdGenerator.TIME_ORDERED);
+	}
+
+}
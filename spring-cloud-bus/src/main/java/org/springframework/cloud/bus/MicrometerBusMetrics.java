@@ -0,0 +1,238 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.util.Assert;
+
+/**
+ * {@link BusMetrics} backed by Micrometer. Nothing is recorded until the instance is
+ * bound to a registry. Events are tagged with their type id and the service part of
+ * their destination or origin (e.g. {@code customers} for {@code customers:9000:abc},
+ * {@code **} for all services). Both tags keep at most a fixed number of distinct values, any
+ * further value is reported as {@code other}.
+ */
+public class MicrometerBusMetrics implements BusMetrics, MeterBinder {
+
+	/**
+	 * Default number of distinct values kept for each tag.
+	 */
+	public static final int DEFAULT_MAX_TAG_VALUES = 100;
+
+	static final String OTHER = "other";
+
+	private final TagValues types;
+
+	private final TagValues destinations;
+
+	private final TagValues origins;
+
+	private volatile Meters meters;
+
+	public MicrometerBusMetrics() {
+		this(DEFAULT_MAX_TAG_VALUES);
+	}
+
+	public MicrometerBusMetrics(int maxTagValues) {
+		Assert.isTrue(maxTagValues > 0, "Max tag values must be positive");
+		this.types = new TagValues(maxTagValues);
+		this.destinations = new TagValues(maxTagValues);
+		this.origins = new TagValues(maxTagValues);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		if (this.meters == null) {
+			// with several registries Boot binds the composite only
+			this.meters = new Meters(registry);
+		}
+	}
+
+	@Override
+	public void eventSent(RemoteApplicationEvent event, long durationNanos, boolean success) {
+		Meters meters = this.meters;
+		if (meters != null) {
+			meters.sent
+				.withTags(Tags.of("type", type(BusEnvelope.getTypeId(event.getClass())), "destination",
+						destination(event.getDestinationService()), "outcome", success ? "success" : "failure"))
+				.record(durationNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public void eventRead(String typeId, int payloadSize, long durationNanos) {
+		Meters meters = this.meters;
+		if (meters != null) {
+			Tags tags = Tags.of("type", type(typeId));
+			meters.read.withTags(tags).record(durationNanos, TimeUnit.NANOSECONDS);
+			meters.payload.withTags(tags).record(payloadSize);
+		}
+	}
+
+	@Override
+	public void eventReceived(String typeId, String destination, Reception reception) {
+		Meters meters = this.meters;
+		if (meters != null) {
+			meters.received
+				.withTags(Tags.of("type", type(typeId), "destination", destination(destination), "outcome",
+						reception.name().toLowerCase(Locale.ROOT)))
+				.increment();
+		}
+	}
+
+	@Override
+	public void eventPropagated(String origin, String typeId, Duration latency) {
+		Meters meters = this.meters;
+		if (meters != null) {
+			meters.propagation
+				.withTags(Tags.of("type", type(typeId), "origin", service(this.origins, origin)))
+				.record(latency);
+		}
+	}
+
+	@Override
+	public void unknownEvent(String typeId) {
+		Meters meters = this.meters;
+		if (meters != null) {
+			meters.unknown.withTags(Tags.of("type", type(typeId))).increment();
+		}
+	}
+
+	@Override
+	public void ackReceived(String typeId, Duration roundTrip) {
+		Meters meters = this.meters;
+		if (meters != null) {
+			meters.ack.withTags(Tags.of("type", type(typeId))).record(roundTrip);
+		}
+	}
+
+	@Override
+	public void refreshed(long durationNanos, boolean success) {
+		Meters meters = this.meters;
+		if (meters != null) {
+			meters.refresh.withTags(Tags.of("outcome", success ? "success" : "failure"))
+				.record(durationNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private String type(String typeId) {
+		return this.types.get((typeId != null) ? typeId : "none");
+	}
+
+	private String destination(String destination) {
+		return service(this.destinations, destination);
+	}
+
+	private static String service(TagValues values, String path) {
+		if (path == null) {
+			return values.get("none");
+		}
+		int colon = path.indexOf(':');
+		return values.get((colon < 0) ? path : path.substring(0, colon));
+	}
+
+	private static final class Meters {
+
+		private final Meter.MeterProvider<Timer> sent;
+
+		private final Meter.MeterProvider<Timer> read;
+
+		private final Meter.MeterProvider<DistributionSummary> payload;
+
+		private final Meter.MeterProvider<Counter> received;
+
+		private final Meter.MeterProvider<Timer> propagation;
+
+		private final Meter.MeterProvider<Counter> unknown;
+
+		private final Meter.MeterProvider<Timer> ack;
+
+		private final Meter.MeterProvider<Timer> refresh;
+
+		private Meters(MeterRegistry registry) {
+			this.sent = Timer.builder("spring.cloud.bus.events.sent")
+				.description("Time taken to hand bus events to the broker")
+				.withRegistry(registry);
+			this.read = Timer.builder("spring.cloud.bus.events.read")
+				.description("Time taken to deserialize inbound bus events")
+				.withRegistry(registry);
+			this.payload = DistributionSummary.builder("spring.cloud.bus.events.payload")
+				.description("Size of inbound bus event payloads")
+				.baseUnit("bytes")
+				.withRegistry(registry);
+			this.received = Counter.builder("spring.cloud.bus.events.received")
+				.description("Bus events received, by what the consumer did with them")
+				.withRegistry(registry);
+			this.propagation = Timer.builder("spring.cloud.bus.events.propagation")
+				.description("Time from an origin sending a bus event to this instance receiving it")
+				.publishPercentileHistogram()
+				.withRegistry(registry);
+			this.unknown = Counter.builder("spring.cloud.bus.events.unknown")
+				.description("Inbound bus events of a type that is not known locally")
+				.withRegistry(registry);
+			this.ack = Timer.builder("spring.cloud.bus.acks.round.trip")
+				.description("Time from sending a bus event to receiving an ack for it")
+				.withRegistry(registry);
+			this.refresh = Timer.builder("spring.cloud.bus.refresh")
+				.description("Time taken by refreshes triggered from the bus")
+				.withRegistry(registry);
+		}
+
+	}
+
+	/**
+	 * The values seen for one tag, up to a limit.
+	 */
+	private static final class TagValues {
+
+		private final Map<String, String> values = new ConcurrentHashMap<>();
+
+		private final int limit;
+
+		private TagValues(int limit) {
+			this.limit = limit;
+		}
+
+		private String get(String value) {
+			String known = this.values.get(value);
+			if (known != null) {
+				return known;
+			}
+			if (this.values.size() >= this.limit) {
+				return OTHER;
+			}
+			String existing = this.values.putIfAbsent(value, value);
+			return (existing != null) ? existing : value;
+		}
+
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.Kind;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * {@link BusObserver} that opens a Micrometer {@link Observation} around each send and
+ * each received event. With a tracer on the classpath, the trace context is injected
+ * into the headers of outbound messages and continued from the envelope of inbound
+ * ones, so the events triggered by a single bus endpoint call (and their acks) end up
+ * in one trace, with a span per instance.
+ */
+public class MicrometerBusObserver implements BusObserver {
+
+	/**
+	 * Name of the observation of a send.
+	 */
+	public static final String SEND_OBSERVATION = "spring.cloud.bus.send";
+
+	/**
+	 * Name of the observation of a received event.
+	 */
+	public static final String RECEIVE_OBSERVATION = "spring.cloud.bus.receive";
+
+	private static final String REMOTE_SERVICE_NAME = "spring-cloud-bus";
+
+	private final ObservationRegistry registry;
+
+	public MicrometerBusObserver(ObservationRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public <T> T observeSend(RemoteApplicationEvent event, Map<String, Object> headers, Supplier<T> send) {
+		return observeSend(event, headers, null, send);
+	}
+
+	@Override
+	public Object captureSendContext() {
+		return this.registry.getCurrentObservation();
+	}
+
+	@Override
+	public <T> T observeSend(RemoteApplicationEvent event, Map<String, Object> headers, Object parent,
+			Supplier<T> send) {
+		if (this.registry.isNoop()) {
+			return send.get();
+		}
+		SenderContext<Map<String, Object>> context = new SenderContext<>(Map::put, Kind.PRODUCER);
+		context.setCarrier(headers);
+		context.setRemoteServiceName(REMOTE_SERVICE_NAME);
+		Observation observation = observation(SEND_OBSERVATION, "send", event, context);
+		if (parent instanceof Observation) {
+			// the caller of an asynchronous send, not whatever is current on this thread
+			observation.parentObservation((Observation) parent);
+		}
+		return observation.observe(send);
+	}
+
+	@Override
+	public void observeReceive(RemoteApplicationEvent event, Runnable receive) {
+		if (this.registry.isNoop()) {
+			receive.run();
+			return;
+		}
+		ReceiverContext<Map<String, Object>> context = new ReceiverContext<>(BusEnvelope::getHeader, Kind.CONSUMER);
+		context.setCarrier(event.getEnvelope());
+		context.setRemoteServiceName(REMOTE_SERVICE_NAME);
+		observation(RECEIVE_OBSERVATION, "receive", event, context).observe(receive);
+	}
+
+	private Observation observation(String name, String operation, RemoteApplicationEvent event,
+			Observation.Context context) {
+		String type = BusEnvelope.getTypeId(event.getClass());
+		return Observation.createNotStarted(name, () -> context, this.registry)
+			.contextualName(type + " " + operation)
+			.lowCardinalityKeyValues(KeyValues.of("bus.event.type", type))
+			.highCardinalityKeyValues(KeyValues.of("bus.event.id", String.valueOf(event.getId()), "bus.origin",
+					String.valueOf(event.getOriginService()), "bus.destination",
+					String.valueOf(event.getDestinationService())));
+	}
+
+}
@@ -17,19 +17,34 @@
 package org.springframework.cloud.bus;
 
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.PathMatcher;
 
 /**
+ * {@link ServiceMatcher} that matches destination and origin patterns against the bus
+ * id and config names using a {@link PathMatcher}. Since those are fixed for the life of
+ * the matcher, the outcome for each destination pattern is computed once and kept in a
+ * bounded LRU cache. Origins are not cached: there is one per instance of the fleet, and
+ * comparing one with the bus id is cheap.
+ *
  * @author Spencer Gibb
  */
 public class PathServiceMatcher implements ServiceMatcher {
 
+	/**
+	 * Maximum number of distinct destination patterns whose match outcome is cached.
+	 */
+	public static final int CACHE_LIMIT = 512;
+
 	private final PathMatcher matcher;
 
 	private final String id;
 
 	private String[] configNames = new String[] {};
 
+	private final ConcurrentLruCache<String, Boolean> forSelf = new ConcurrentLruCache<>(CACHE_LIMIT,
+			this::matchForSelf);
+
 	public PathServiceMatcher(PathMatcher matcher, String id) {
 		this.matcher = matcher;
 		this.id = id;
@@ -50,15 +65,30 @@ public class PathServiceMatcher implements ServiceMatcher {
 	}
 
 	public boolean isFromSelf(RemoteApplicationEvent event) {
-		String originService = event.getOriginService();
+		return isFromSelf(event.getOriginService());
+	}
+
+	public boolean isFromSelf(String originService) {
 		String serviceId = getBusId();
+		if (originService != null && originService.equals(serviceId)) {
+			return true;
+		}
 		return this.matcher.match(originService, serviceId);
 	}
 
 	public boolean isForSelf(RemoteApplicationEvent event) {
-		String destinationService = event.getDestinationService();
-		if (destinationService == null || destinationService.trim().isEmpty()
-				|| this.matcher.match(destinationService, getBusId())) {
+		return isForSelf(event.getDestinationService());
+	}
+
+	public boolean isForSelf(String destinationService) {
+		if (destinationService == null || destinationService.trim().isEmpty()) {
+			return true;
+		}
+		return this.forSelf.get(destinationService);
+	}
+
+	private boolean matchForSelf(String destinationService) {
+		if (this.matcher.match(destinationService, getBusId())) {
 			return true;
 		}
 
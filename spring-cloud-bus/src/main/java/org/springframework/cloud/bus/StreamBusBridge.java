@@ -16,24 +16,143 @@
 
 package org.springframework.cloud.bus;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.support.MessageBuilder;
 
-public class StreamBusBridge implements BusBridge {
+public class StreamBusBridge implements BusBridge, DisposableBean {
+
+	private static final Log log = LogFactory.getLog(StreamBusBridge.class);
 
 	private final StreamBridge streamBridge;
 
 	private final BusProperties properties;
 
+	private final AsyncBusSender asyncSender;
+
+	private final BatchingBusSender batchingSender;
+
+	private BusMetrics metrics = BusMetrics.NONE;
+
+	private BusObserver observer = BusObserver.NONE;
+
 	public StreamBusBridge(StreamBridge streamBridge, BusProperties properties) {
 		this.streamBridge = streamBridge;
 		this.properties = properties;
+		this.asyncSender = properties.getSend().isAsync() ? new AsyncBusSender(this::doSend, properties.getSend())
+				: null;
+		this.batchingSender = properties.getSend().getBatch().isEnabled()
+				? new BatchingBusSender(this::dispatch, properties.getId(), properties.getSend().getBatch()) : null;
+	}
+
+	/**
+	 * Record the latency and outcome of each send.
+	 * @param metrics the metrics to record to
+	 */
+	public void setMetrics(BusMetrics metrics) {
+		this.metrics = (metrics != null) ? metrics : BusMetrics.NONE;
+	}
+
+	/**
+	 * Observe each send, e.g. to propagate the current trace in the message headers.
+	 * @param observer the observer to use
+	 */
+	public void setObserver(BusObserver observer) {
+		this.observer = (observer != null) ? observer : BusObserver.NONE;
 	}
 
 	public void send(RemoteApplicationEvent event) {
-		// TODO: configurable mimetype?
-		this.streamBridge.send(BusConstants.OUTPUT, MessageBuilder.withPayload(event).build());
+		if (isBatched(event)) {
+			logFailure(event, this.batchingSender.submit(event, this.observer.captureSendContext()));
+		}
+		else if (this.asyncSender != null) {
+			logFailure(event, this.asyncSender.submit(event, this.observer.captureSendContext()));
+		}
+		else if (!doSend(event, null)) {
+			log.error("Bus refused to send remote event: " + event);
+		}
+	}
+
+	private void logFailure(RemoteApplicationEvent event, CompletableFuture<Void> result) {
+		// nobody else sees the result of a fire-and-forget send
+		result.whenComplete((ignored, ex) -> {
+			if (ex != null) {
+				log.error("Failed to send remote event on bus: " + event, ex);
+			}
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> sendAsync(RemoteApplicationEvent event) {
+		// sent later, maybe on another thread, so keep the context of the caller
+		Object context = this.observer.captureSendContext();
+		if (isBatched(event)) {
+			return this.batchingSender.submit(event, context);
+		}
+		return dispatch(event, context);
+	}
+
+	private boolean isBatched(RemoteApplicationEvent event) {
+		// acks go out straight away so receivers can still filter them on their envelope
+		return this.batchingSender != null && !(event instanceof AckRemoteApplicationEvent)
+				&& !(event instanceof AckRollupRemoteApplicationEvent);
+	}
+
+	private CompletableFuture<Void> dispatch(RemoteApplicationEvent event, Object context) {
+		if (this.asyncSender != null) {
+			return this.asyncSender.submit(event, context);
+		}
+		try {
+			if (!doSend(event, context)) {
+				return CompletableFuture.failedFuture(new MessageDeliveryException("Bus refused to send " + event));
+			}
+			return CompletableFuture.completedFuture(null);
+		}
+		catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Send an event on behalf of a caller that may have been on another thread.
+	 * @param event the event to send
+	 * @param context the context captured from the caller by the observer, or null
+	 * @return whether the binder accepted the message
+	 * @see BusObserver#captureSendContext()
+	 */
+	protected boolean doSend(RemoteApplicationEvent event, Object context) {
+		long start = System.nanoTime();
+		boolean sent = false;
+		try {
+			Map<String, Object> headers = BusEnvelope.getHeaders(event);
+			// TODO: configurable mimetype?
+			sent = this.observer.observeSend(event, headers, context, () -> this.streamBridge
+				.send(BusConstants.OUTPUT, MessageBuilder.withPayload(event).copyHeaders(headers).build()));
+		}
+		finally {
+			this.metrics.eventSent(event, System.nanoTime() - start, sent);
+		}
+		return sent;
+	}
+
+	@Override
+	public void destroy() {
+		if (this.batchingSender != null) {
+			this.batchingSender.close();
+		}
+		if (this.asyncSender != null) {
+			this.asyncSender.close();
+		}
 	}
 
 }
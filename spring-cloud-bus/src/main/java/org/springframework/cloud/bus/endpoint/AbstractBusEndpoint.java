@@ -16,7 +16,15 @@
 
 package org.springframework.cloud.bus.endpoint;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.cloud.bus.AckTracker;
 import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 
@@ -31,6 +39,8 @@ public class AbstractBusEndpoint {
 
 	private final Destination.Factory destinationFactory;
 
+	private AckTracker ackTracker;
+
 	public AbstractBusEndpoint(ApplicationEventPublisher publisher, String appId,
 			Destination.Factory destinationFactory) {
 		this.publisher = publisher;
@@ -38,6 +48,14 @@ public class AbstractBusEndpoint {
 		this.destinationFactory = destinationFactory;
 	}
 
+	/**
+	 * Set the tracker used to wait for acks when a caller asks for it.
+	 * @param ackTracker the ack tracker, or null to never wait
+	 */
+	public void setAckTracker(AckTracker ackTracker) {
+		this.ackTracker = ackTracker;
+	}
+
 	protected String getInstanceId() {
 		return this.appId;
 	}
@@ -54,4 +72,40 @@ public class AbstractBusEndpoint {
 		this.publisher.publishEvent(event);
 	}
 
+	/**
+	 * Publish the event and, if a timeout is given, wait for the acks to come back.
+	 * @param event the event to publish
+	 * @param await how long to wait for acks, or null to return immediately
+	 * @return the services that responded, or null if not waiting
+	 * @throws InvalidEndpointRequestException if the timeout is negative or longer than
+	 * the tracking timeout of the acks
+	 */
+	protected AckTracker.Record publish(RemoteApplicationEvent event, Duration await) {
+		if (await == null || this.ackTracker == null) {
+			publish(event);
+			return null;
+		}
+		Duration limit = this.ackTracker.getTimeout();
+		if (await.isNegative() || await.compareTo(limit) > 0) {
+			throw new InvalidEndpointRequestException(
+					"await must be between 0 and spring.cloud.bus.ack.tracking-timeout (" + limit + ")",
+					"Invalid await");
+		}
+		AckTracker.Record record = this.ackTracker.track(event, await);
+		publish(event);
+		try {
+			return record.getFuture().get(await.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException ex) {
+			return record;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return record;
+		}
+		catch (ExecutionException ex) {
+			throw new IllegalStateException("Failed to wait for acks of " + event, ex.getCause());
+		}
+	}
+
 }
@@ -16,13 +16,16 @@
 
 package org.springframework.cloud.bus.endpoint;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
 
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
 import org.springframework.boot.actuate.endpoint.annotation.Selector;
 import org.springframework.boot.actuate.endpoint.annotation.Selector.Match;
 import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.cloud.bus.AckTracker;
 import org.springframework.cloud.bus.event.Destination;
 import org.springframework.cloud.bus.event.EnvironmentChangeRemoteApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
@@ -41,18 +44,29 @@ public class EnvironmentBusEndpoint extends AbstractBusEndpoint {
 
 	@WriteOperation
 	// TODO: document params
-	public void busEnvWithDestination(String name, String value,
-			@Selector(match = Match.ALL_REMAINING) String[] destinations) {
+	public AckTracker.Record busEnvWithDestination(String name, String value,
+			@Selector(match = Match.ALL_REMAINING) String[] destinations, @OptionalParameter Duration await) {
 		Map<String, String> params = Collections.singletonMap(name, value);
 		String destination = StringUtils.arrayToDelimitedString(destinations, ":");
-		publish(new EnvironmentChangeRemoteApplicationEvent(this, getInstanceId(), getDestination(destination),
-				params));
+		return publish(new EnvironmentChangeRemoteApplicationEvent(this, getInstanceId(), getDestination(destination),
+				params), await);
 	}
 
 	@WriteOperation
-	public void busEnv(String name, String value) { // TODO: document params
+	// TODO: document params
+	public AckTracker.Record busEnv(String name, String value, @OptionalParameter Duration await) {
 		Map<String, String> params = Collections.singletonMap(name, value);
-		publish(new EnvironmentChangeRemoteApplicationEvent(this, getInstanceId(), getDestination(null), params));
+		return publish(
+				new EnvironmentChangeRemoteApplicationEvent(this, getInstanceId(), getDestination(null), params),
+				await);
+	}
+
+	public void busEnvWithDestination(String name, String value, String[] destinations) {
+		busEnvWithDestination(name, value, destinations, null);
+	}
+
+	public void busEnv(String name, String value) {
+		busEnv(name, value, null);
 	}
 
 }
@@ -16,7 +16,12 @@
 
 package org.springframework.cloud.bus.endpoint;
 
+import java.time.Duration;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
 import org.springframework.boot.actuate.endpoint.annotation.Selector;
 import org.springframework.boot.actuate.endpoint.annotation.Selector.Match;
 import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
@@ -31,19 +36,70 @@ import org.springframework.util.StringUtils;
 @Endpoint(id = "busrefresh") // TODO: document new id
 public class RefreshBusEndpoint extends AbstractBusEndpoint {
 
+	private final RollingRefresh rollingRefresh;
+
 	public RefreshBusEndpoint(ApplicationEventPublisher publisher, String id, Destination.Factory destinationFactory) {
+		this(publisher, id, destinationFactory, null);
+	}
+
+	public RefreshBusEndpoint(ApplicationEventPublisher publisher, String id, Destination.Factory destinationFactory,
+			RollingRefresh rollingRefresh) {
 		super(publisher, id, destinationFactory);
+		this.rollingRefresh = rollingRefresh;
 	}
 
 	@WriteOperation
-	public void busRefreshWithDestination(@Selector(match = Match.ALL_REMAINING) String[] destinations) {
+	public Object busRefreshWithDestination(@Selector(match = Match.ALL_REMAINING) String[] destinations,
+			@OptionalParameter String waveSize, @OptionalParameter Duration await) {
 		String destination = StringUtils.arrayToDelimitedString(destinations, ":");
-		publish(new RefreshRemoteApplicationEvent(this, getInstanceId(), getDestination(destination)));
+		return refresh(destination, waveSize, await);
 	}
 
 	@WriteOperation
+	public Object busRefresh(@OptionalParameter String waveSize, @OptionalParameter Duration await) {
+		return refresh(null, waveSize, await);
+	}
+
+	/**
+	 * The progress of a rolling refresh started from this endpoint.
+	 * @param id the id of the rollout
+	 * @return its report, or null if there is no such rollout
+	 */
+	@ReadOperation
+	public RollingRefresh.Report rollingRefresh(@Selector String id) {
+		return (this.rollingRefresh != null) ? this.rollingRefresh.getReport(id) : null;
+	}
+
+	public void busRefreshWithDestination(String[] destinations) {
+		busRefreshWithDestination(destinations, null, null);
+	}
+
 	public void busRefresh() {
-		publish(new RefreshRemoteApplicationEvent(this, getInstanceId(), getDestination(null)));
+		busRefresh(null, null);
+	}
+
+	private Object refresh(String destination, String waveSize, Duration await) {
+		if (!StringUtils.hasText(waveSize)) {
+			return publish(new RefreshRemoteApplicationEvent(this, getInstanceId(), getDestination(destination)),
+					await);
+		}
+		if (this.rollingRefresh == null) {
+			throw new InvalidEndpointRequestException("Rolling refresh is not available", "No AckTracker");
+		}
+		try {
+			RollingRefresh.parseWaveSize(waveSize, 0);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new InvalidEndpointRequestException(ex.getMessage(), "Invalid waveSize");
+		}
+		try {
+			this.rollingRefresh.checkAcks();
+		}
+		catch (IllegalStateException ex) {
+			throw new InvalidEndpointRequestException(ex.getMessage(), "Acks not sent by every instance");
+		}
+		// waves can take minutes, do not hold the request
+		return this.rollingRefresh.start(destination, waveSize);
 	}
 
 }
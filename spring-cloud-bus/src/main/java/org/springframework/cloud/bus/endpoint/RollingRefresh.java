@@ -0,0 +1,355 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.endpoint;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.cloud.bus.AckTracker;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.PingRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * Refreshes the instances matching a destination in waves. The instances are found by
+ * pinging the destination and collecting the acks, then each wave sends a refresh
+ * addressed to its instances only, and the next wave starts once enough of them
+ * acknowledged it. Instances that refresh in the background ack once their refresh has
+ * run, so a wave is only acknowledged when it is actually refreshed.
+ * <p>
+ * Every instance has to ack what it receives, so acks must be enabled in
+ * {@link BusProperties.Ack.Mode#ALL ALL} or {@link BusProperties.Ack.Mode#ORIGIN ORIGIN}
+ * mode across the fleet. Sampled acks would only find a sample of it.
+ */
+public class RollingRefresh {
+
+	private static final Log log = LogFactory.getLog(RollingRefresh.class);
+
+	/**
+	 * Number of rollouts whose report is kept.
+	 */
+	static final int MAX_REPORTS = 16;
+
+	private final ApplicationEventPublisher publisher;
+
+	private final String busId;
+
+	private final Destination.Factory destinationFactory;
+
+	private final AckTracker ackTracker;
+
+	private final BusProperties.Refresh.Rolling properties;
+
+	private final BusProperties.Ack ack;
+
+	private final TaskExecutor executor;
+
+	private final Map<String, Report> reports = new LinkedHashMap<>();
+
+	public RollingRefresh(ApplicationEventPublisher publisher, String busId, Destination.Factory destinationFactory,
+			AckTracker ackTracker, BusProperties.Refresh.Rolling properties) {
+		this(publisher, busId, destinationFactory, ackTracker, properties, new BusProperties.Ack());
+	}
+
+	public RollingRefresh(ApplicationEventPublisher publisher, String busId, Destination.Factory destinationFactory,
+			AckTracker ackTracker, BusProperties.Refresh.Rolling properties, BusProperties.Ack ack) {
+		this.publisher = publisher;
+		this.busId = busId;
+		this.destinationFactory = destinationFactory;
+		this.ackTracker = ackTracker;
+		this.properties = properties;
+		this.ack = ack;
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("spring-cloud-bus-rolling-refresh-");
+		if (JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+			executor.setVirtualThreads(true);
+		}
+		this.executor = executor;
+	}
+
+	/**
+	 * Start refreshing the instances matching the destination, a wave at a time, in the
+	 * background.
+	 * @param destination the destination to refresh, or null for all instances
+	 * @param waveSize the number of instances per wave, or a percentage of them such as
+	 * {@code 25%}
+	 * @return the report of the rollout, updated as the waves run
+	 * @throws IllegalStateException if the instances do not ack every event
+	 * @see #getReport(String)
+	 */
+	public Report start(String destination, String waveSize) {
+		checkAcks();
+		Report report = new Report(UUID.randomUUID().toString());
+		synchronized (this.reports) {
+			this.reports.put(report.getId(), report);
+			Iterator<String> oldest = this.reports.keySet().iterator();
+			while (this.reports.size() > MAX_REPORTS) {
+				oldest.next();
+				oldest.remove();
+			}
+		}
+		this.executor.execute(() -> run(report, destination, waveSize));
+		return report;
+	}
+
+	/**
+	 * Find one of the most recent rollouts.
+	 * @param id the id of the rollout
+	 * @return its report or null if it is unknown
+	 */
+	public Report getReport(String id) {
+		synchronized (this.reports) {
+			return this.reports.get(id);
+		}
+	}
+
+	/**
+	 * Refresh the instances matching the destination, a wave at a time.
+	 * @param destination the destination to refresh, or null for all instances
+	 * @param waveSize the number of instances per wave, or a percentage of them such as
+	 * {@code 25%}
+	 * @return a report of the waves that ran
+	 * @throws IllegalStateException if the instances do not ack every event
+	 */
+	public Report run(String destination, String waveSize) {
+		checkAcks();
+		Report report = new Report(UUID.randomUUID().toString());
+		run(report, destination, waveSize);
+		return report;
+	}
+
+	/**
+	 * Check that the instances ack everything they receive, which the rollout needs to
+	 * find them and to know when a wave is refreshed. The ack settings of this instance
+	 * stand in for those of the fleet.
+	 * @throws IllegalStateException if they do not
+	 */
+	public void checkAcks() {
+		if (!this.ack.isEnabled()) {
+			throw new IllegalStateException("Rolling refresh needs acks, but spring.cloud.bus.ack.enabled is false");
+		}
+		if (this.ack.getMode() != BusProperties.Ack.Mode.ALL && this.ack.getMode() != BusProperties.Ack.Mode.ORIGIN) {
+			throw new IllegalStateException("Rolling refresh needs every instance to ack, but "
+					+ "spring.cloud.bus.ack.mode is " + this.ack.getMode());
+		}
+	}
+
+	private void run(Report report, String destination, String waveSize) {
+		try {
+			List<String> instances = new ArrayList<>(discover(destination));
+			if (instances.isEmpty()) {
+				log.warn("Stopping rolling refresh of " + destination + ", no instance acknowledged the ping within "
+						+ this.properties.getDiscoveryTimeout());
+				return;
+			}
+			report.instances.addAll(instances);
+			int size = parseWaveSize(waveSize, instances.size());
+			for (int start = 0; start < instances.size(); start += size) {
+				Wave wave = refresh(instances.subList(start, Math.min(start + size, instances.size())));
+				report.waves.add(wave);
+				if (!wave.isComplete()) {
+					log.warn("Stopping rolling refresh of " + destination + " after wave " + report.waves.size()
+							+ ", only " + wave.getAcknowledged().size() + " of " + wave.getInstances().size()
+							+ " instances acknowledged");
+					return;
+				}
+			}
+			report.complete = true;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch (RuntimeException ex) {
+			log.error("Rolling refresh of " + destination + " failed", ex);
+		}
+		finally {
+			report.done = true;
+		}
+	}
+
+	private Set<String> discover(String destination) throws InterruptedException {
+		RemoteApplicationEvent ping = new PingRemoteApplicationEvent(this, this.busId,
+				this.destinationFactory.getDestination(destination));
+		// the instances are unknown, so the record only completes on the timeout
+		AckTracker.Record record = this.ackTracker.track(ping, this.properties.getDiscoveryTimeout());
+		this.publisher.publishEvent(ping);
+		return await(record).getResponses().keySet();
+	}
+
+	private Wave refresh(List<String> instances) throws InterruptedException {
+		List<RemoteApplicationEvent> events = new ArrayList<>();
+		for (String instance : instances) {
+			events.add(new RefreshRemoteApplicationEvent(this, this.busId,
+					this.destinationFactory.getDestination(instance)));
+		}
+		int required = (int) Math.ceil(instances.size() * this.properties.getAckPercentage() / 100.0);
+		if (required == 0) {
+			// nothing to wait for
+			events.forEach(this.publisher::publishEvent);
+			return new Wave(new ArrayList<>(instances), Set.of(), true);
+		}
+		AckTracker.Record record = this.ackTracker.track(events, new LinkedHashSet<>(instances), required,
+				this.properties.getWaveTimeout());
+		events.forEach(this.publisher::publishEvent);
+		await(record);
+		return new Wave(new ArrayList<>(instances), record.getResponses().keySet(), record.isComplete());
+	}
+
+	private AckTracker.Record await(AckTracker.Record record) throws InterruptedException {
+		try {
+			return record.getFuture().get();
+		}
+		catch (ExecutionException ex) {
+			throw new IllegalStateException("Could not collect acks", ex.getCause());
+		}
+	}
+
+	static int parseWaveSize(String waveSize, int instances) {
+		if (waveSize == null || waveSize.isBlank()) {
+			return Math.max(instances, 1);
+		}
+		String value = waveSize.trim();
+		int size;
+		if (value.endsWith("%")) {
+			int percentage = Integer.parseInt(value.substring(0, value.length() - 1).trim());
+			if (percentage <= 0 || percentage > 100) {
+				throw new IllegalArgumentException("Wave percentage must be between 1 and 100: " + waveSize);
+			}
+			size = (int) Math.ceil(instances * percentage / 100.0);
+		}
+		else {
+			size = Integer.parseInt(value);
+			if (size <= 0) {
+				throw new IllegalArgumentException("Wave size must be positive: " + waveSize);
+			}
+		}
+		return Math.max(size, 1);
+	}
+
+	/**
+	 * The outcome of a rolling refresh.
+	 */
+	public static class Report {
+
+		private final String id;
+
+		private final List<String> instances = new CopyOnWriteArrayList<>();
+
+		private final List<Wave> waves = new CopyOnWriteArrayList<>();
+
+		private volatile boolean complete;
+
+		private volatile boolean done;
+
+		Report(String id) {
+			this.id = id;
+		}
+
+		/**
+		 * @return the id of the rollout
+		 */
+		public String getId() {
+			return this.id;
+		}
+
+		/**
+		 * @return the instances that matched the destination
+		 */
+		public List<String> getInstances() {
+			return this.instances;
+		}
+
+		/**
+		 * @return the waves that were started
+		 */
+		public List<Wave> getWaves() {
+			return this.waves;
+		}
+
+		/**
+		 * @return whether every wave was acknowledged
+		 */
+		public boolean isComplete() {
+			return this.complete;
+		}
+
+		/**
+		 * @return whether the rollout is over, complete or not
+		 */
+		public boolean isDone() {
+			return this.done;
+		}
+
+	}
+
+	/**
+	 * The outcome of a single wave.
+	 */
+	public static class Wave {
+
+		private final List<String> instances;
+
+		private final Set<String> acknowledged;
+
+		private final boolean complete;
+
+		Wave(List<String> instances, Set<String> acknowledged, boolean complete) {
+			this.instances = instances;
+			this.acknowledged = acknowledged;
+			this.complete = complete;
+		}
+
+		/**
+		 * @return the instances refreshed in this wave
+		 */
+		public List<String> getInstances() {
+			return this.instances;
+		}
+
+		/**
+		 * @return the instances that acknowledged their refresh
+		 */
+		public Set<String> getAcknowledged() {
+			return this.acknowledged;
+		}
+
+		/**
+		 * @return whether enough instances acknowledged to move on
+		 */
+		public boolean isComplete() {
+			return this.complete;
+		}
+
+	}
+
+}
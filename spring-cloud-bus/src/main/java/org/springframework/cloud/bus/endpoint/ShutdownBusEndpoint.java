@@ -16,9 +16,13 @@
 
 package org.springframework.cloud.bus.endpoint;
 
+import java.time.Duration;
+
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
 import org.springframework.boot.actuate.endpoint.annotation.Selector;
 import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.cloud.bus.AckTracker;
 import org.springframework.cloud.bus.event.Destination;
 import org.springframework.cloud.bus.event.ShutdownRemoteApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
@@ -35,14 +39,23 @@ public class ShutdownBusEndpoint extends AbstractBusEndpoint {
 	}
 
 	@WriteOperation
-	public void busShutdownWithDestination(@Selector(match = Selector.Match.ALL_REMAINING) String[] destinations) {
+	public AckTracker.Record busShutdownWithDestination(
+			@Selector(match = Selector.Match.ALL_REMAINING) String[] destinations, @OptionalParameter Duration await) {
 		String destination = StringUtils.arrayToDelimitedString(destinations, ":");
-		publish(new ShutdownRemoteApplicationEvent(this, getInstanceId(), getDestination(destination)));
+		return publish(new ShutdownRemoteApplicationEvent(this, getInstanceId(), getDestination(destination)), await);
 	}
 
 	@WriteOperation
+	public AckTracker.Record busShutdown(@OptionalParameter Duration await) {
+		return publish(new ShutdownRemoteApplicationEvent(this, getInstanceId(), getDestination(null)), await);
+	}
+
+	public void busShutdownWithDestination(String[] destinations) {
+		busShutdownWithDestination(destinations, null);
+	}
+
 	public void busShutdown() {
-		publish(new ShutdownRemoteApplicationEvent(this, getInstanceId(), getDestination(null)));
+		busShutdown(null);
 	}
 
 }
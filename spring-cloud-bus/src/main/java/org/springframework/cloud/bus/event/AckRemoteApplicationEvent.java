@@ -37,6 +37,8 @@ public class AckRemoteApplicationEvent extends RemoteApplicationEvent {
 
 	private Class<? extends RemoteApplicationEvent> event;
 
+	private String servedBy;
+
 	@SuppressWarnings("unused")
 	@JsonCreator
 	private AckRemoteApplicationEvent() {
@@ -66,6 +68,19 @@ public class AckRemoteApplicationEvent extends RemoteApplicationEvent {
 		return this.event;
 	}
 
+	/**
+	 * The id of the event whose processing served the acked event, if that is another
+	 * one, e.g. the refresh that a refresh request was coalesced into.
+	 * @return the id or null if the acked event was processed on its own
+	 */
+	public String getServedBy() {
+		return this.servedBy;
+	}
+
+	public void setServedBy(String servedBy) {
+		this.servedBy = servedBy;
+	}
+
 	/**
 	 * Used by Jackson to set the remote class name of the event implementation. If the
 	 * implementing class is unknown to this app, set the event to
@@ -73,14 +88,8 @@ public class AckRemoteApplicationEvent extends RemoteApplicationEvent {
 	 * @param eventName the fq class name of the event implementation, not null
 	 */
 	@JsonProperty("event")
-	@SuppressWarnings("unchecked")
 	public void setEventName(String eventName) {
-		try {
-			this.event = (Class<? extends RemoteApplicationEvent>) Class.forName(eventName);
-		}
-		catch (ClassNotFoundException e) {
-			this.event = UnknownRemoteApplicationEvent.class;
-		}
+		this.event = EventTypeResolver.resolve(eventName, AckRemoteApplicationEvent.class.getClassLoader());
 	}
 
 	@Override
@@ -90,6 +99,7 @@ public class AckRemoteApplicationEvent extends RemoteApplicationEvent {
 		result = prime * result + ((this.ackDestinationService == null) ? 0 : this.ackDestinationService.hashCode());
 		result = prime * result + ((this.ackId == null) ? 0 : this.ackId.hashCode());
 		result = prime * result + ((this.event == null) ? 0 : this.event.hashCode());
+		result = prime * result + ((this.servedBy == null) ? 0 : this.servedBy.hashCode());
 		return result;
 	}
 
@@ -129,6 +139,14 @@ public class AckRemoteApplicationEvent extends RemoteApplicationEvent {
 		else if (!this.event.equals(other.event)) {
 			return false;
 		}
+		if (this.servedBy == null) {
+			if (other.servedBy != null) {
+				return false;
+			}
+		}
+		else if (!this.servedBy.equals(other.servedBy)) {
+			return false;
+		}
 		return true;
 	}
 
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.core.style.ToStringCreator;
+import org.springframework.util.Assert;
+
+/**
+ * A summary of the acks a single node produced within a short window, sent as one bus
+ * message instead of one {@link AckRemoteApplicationEvent} each. The receiving side
+ * expands it back into individual acks.
+ */
+@SuppressWarnings("serial")
+public class AckRollupRemoteApplicationEvent extends RemoteApplicationEvent {
+
+	// Do not make this final or Jackson 3 cannot set it when serializing the object
+	private List<Entry> acks;
+
+	@SuppressWarnings("unused")
+	private AckRollupRemoteApplicationEvent() {
+		// for serializers
+		this.acks = null;
+	}
+
+	public AckRollupRemoteApplicationEvent(Object source, String originService, Destination destination,
+			List<Entry> acks) {
+		super(source, originService, destination);
+		Assert.notEmpty(acks, "acks may not be empty");
+		this.acks = acks;
+	}
+
+	public List<Entry> getAcks() {
+		return this.acks;
+	}
+
+	/**
+	 * Expand the entries that were processed into individual acks, as if they had been
+	 * sent one by one.
+	 * @return the acks of the processed events
+	 */
+	public List<AckRemoteApplicationEvent> toAcks() {
+		List<AckRemoteApplicationEvent> result = new ArrayList<>(this.acks.size());
+		String destination = getDestinationService();
+		for (Entry entry : this.acks) {
+			if (entry.getOutcome() == Outcome.PROCESSED) {
+				AckRemoteApplicationEvent ack = new AckRemoteApplicationEvent(this, getOriginService(),
+						() -> destination, entry.getAckDestinationService(), entry.getAckId(), entry.getEventType());
+				ack.setServedBy(entry.getServedBy());
+				result.add(ack);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * super.hashCode() + Objects.hashCode(this.acks);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj)) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		return Objects.equals(this.acks, ((AckRollupRemoteApplicationEvent) obj).acks);
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringCreator(this).append("id", getId())
+			.append("originService", getOriginService())
+			.append("destinationService", getDestinationService())
+			.append("acks", (this.acks != null) ? this.acks.size() : 0)
+			.toString();
+	}
+
+	/**
+	 * What a node did with an event it received.
+	 */
+	public enum Outcome {
+
+		/**
+		 * The event was handed to the local listeners without error.
+		 */
+		PROCESSED,
+
+		/**
+		 * A local listener failed on the event.
+		 */
+		FAILED
+
+	}
+
+	/**
+	 * A single acked event.
+	 */
+	public static class Entry {
+
+		private String ackId;
+
+		private String ackDestinationService;
+
+		private String event;
+
+		private Outcome outcome;
+
+		private String servedBy;
+
+		@SuppressWarnings("unused")
+		private Entry() {
+			// for serializers
+		}
+
+		public Entry(AckRemoteApplicationEvent ack, Outcome outcome) {
+			this.ackId = ack.getAckId();
+			this.ackDestinationService = ack.getAckDestinationService();
+			this.event = (ack.getEvent() != null) ? ack.getEvent().getName() : null;
+			this.outcome = outcome;
+			this.servedBy = ack.getServedBy();
+		}
+
+		public String getAckId() {
+			return this.ackId;
+		}
+
+		public String getAckDestinationService() {
+			return this.ackDestinationService;
+		}
+
+		/**
+		 * @return the fully qualified class name of the acked event
+		 */
+		public String getEvent() {
+			return this.event;
+		}
+
+		public Outcome getOutcome() {
+			return this.outcome;
+		}
+
+		/**
+		 * @return the id of the event whose processing served the acked event
+		 * @see AckRemoteApplicationEvent#getServedBy()
+		 */
+		public String getServedBy() {
+			return this.servedBy;
+		}
+
+		Class<? extends RemoteApplicationEvent> getEventType() {
+			// resolved like the acks the rollup expands into
+			return EventTypeResolver.resolve(this.event, AckRemoteApplicationEvent.class.getClassLoader());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.ackId, this.ackDestinationService, this.event, this.outcome, this.servedBy);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Entry other = (Entry) obj;
+			return Objects.equals(this.ackId, other.ackId)
+					&& Objects.equals(this.ackDestinationService, other.ackDestinationService)
+					&& Objects.equals(this.event, other.event) && this.outcome == other.outcome
+					&& Objects.equals(this.servedBy, other.servedBy);
+		}
+
+		@Override
+		public String toString() {
+			return new ToStringCreator(this).append("ackId", ackId)
+				.append("event", event)
+				.append("outcome", outcome)
+				.toString();
+		}
+
+	}
+
+}
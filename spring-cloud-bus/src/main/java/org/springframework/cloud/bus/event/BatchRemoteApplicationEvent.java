@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.event;
+
+import java.util.List;
+
+import org.springframework.core.style.ToStringCreator;
+import org.springframework.util.Assert;
+
+/**
+ * A remote event that carries several other remote events in a single bus message. It
+ * is produced by the sending side when batching is enabled and unpacked again by the
+ * receiving side, so listeners only ever see the individual events.
+ */
+@SuppressWarnings("serial")
+public class BatchRemoteApplicationEvent extends RemoteApplicationEvent {
+
+	// Do not make this final or Jackson 3 cannot set it when serializing the object
+	private List<RemoteApplicationEvent> events;
+
+	@SuppressWarnings("unused")
+	private BatchRemoteApplicationEvent() {
+		// for serializers
+		this.events = null;
+	}
+
+	public BatchRemoteApplicationEvent(Object source, String originService, Destination destination,
+			List<RemoteApplicationEvent> events) {
+		super(source, originService, destination);
+		Assert.notEmpty(events, "events may not be empty");
+		this.events = events;
+	}
+
+	public List<RemoteApplicationEvent> getEvents() {
+		return this.events;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((this.events == null) ? 0 : this.events.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!super.equals(obj)) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		BatchRemoteApplicationEvent other = (BatchRemoteApplicationEvent) obj;
+		if (this.events == null) {
+			if (other.events != null) {
+				return false;
+			}
+		}
+		else if (!this.events.equals(other.events)) {
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringCreator(this).append("id", getId())
+			.append("originService", getOriginService())
+			.append("destinationService", getDestinationService())
+			.append("events", (this.events != null) ? this.events.size() : 0)
+			.toString();
+	}
+
+}
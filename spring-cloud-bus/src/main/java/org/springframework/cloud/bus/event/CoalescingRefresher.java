@@ -0,0 +1,247 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.event;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.bus.BusMetrics;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Runs context refreshes on a dedicated thread and collapses requests that arrive while
+ * a refresh is waiting to start or running: all of them are served by at most one
+ * follow-up refresh. Each refresh is identified by the id of the request that scheduled
+ * it, and requests are completed with the id of the refresh that served them.
+ * <p>
+ * A refresh can be delayed by a per instance amount so that a refresh sent to the whole
+ * fleet does not hit shared backends from every instance at the same moment. Requests
+ * arriving during the delay join the delayed refresh.
+ */
+public class CoalescingRefresher implements DisposableBean {
+
+	private static final Log log = LogFactory.getLog(CoalescingRefresher.class);
+
+	private final ContextRefresher contextRefresher;
+
+	private final Supplier<Duration> delay;
+
+	private final ScheduledExecutorService executor;
+
+	private final Object monitor = new Object();
+
+	private volatile Duration lastDelay = Duration.ZERO;
+
+	private volatile long lastStartTime;
+
+	private BusMetrics metrics = BusMetrics.NONE;
+
+	private boolean running;
+
+	private ScheduledRefresh scheduled;
+
+	public CoalescingRefresher(ContextRefresher contextRefresher) {
+		this(contextRefresher, () -> Duration.ZERO);
+	}
+
+	public CoalescingRefresher(ContextRefresher contextRefresher, Supplier<Duration> delay) {
+		this.contextRefresher = contextRefresher;
+		this.delay = delay;
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spring-cloud-bus-refresh-");
+		threadFactory.setDaemon(true);
+		this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	/**
+	 * Record how long each refresh takes, once for all the requests it serves and without
+	 * the delay before it.
+	 * @param metrics the metrics to record to
+	 */
+	public void setMetrics(BusMetrics metrics) {
+		this.metrics = (metrics != null) ? metrics : BusMetrics.NONE;
+	}
+
+	/**
+	 * A delay chosen at random in the given window for every refresh.
+	 * @param window the maximum delay
+	 * @return the delay supplier
+	 */
+	public static Supplier<Duration> randomDelay(Duration window) {
+		long windowMillis = window.toMillis();
+		if (windowMillis <= 0) {
+			return () -> Duration.ZERO;
+		}
+		return () -> Duration.ofMillis(ThreadLocalRandom.current().nextLong(windowMillis + 1));
+	}
+
+	/**
+	 * A fixed slot in the given window derived from the bus id, so that every instance
+	 * refreshes at a stable, different offset.
+	 * @param busId the bus id of this instance
+	 * @param window the maximum delay
+	 * @return the delay supplier
+	 */
+	public static Supplier<Duration> hashedDelay(String busId, Duration window) {
+		long windowMillis = window.toMillis();
+		if (windowMillis <= 0) {
+			return () -> Duration.ZERO;
+		}
+		// spread similar ids (e.g. differing only in the port) across the window
+		long hash = busId.hashCode() * 0x9E3779B97F4A7C15L;
+		hash ^= (hash >>> 32);
+		Duration slot = Duration.ofMillis(Math.floorMod(hash, windowMillis + 1));
+		return () -> slot;
+	}
+
+	/**
+	 * The delay chosen for the most recently scheduled refresh.
+	 * @return the delay
+	 */
+	public Duration getLastDelay() {
+		return this.lastDelay;
+	}
+
+	/**
+	 * The wall clock time the most recent refresh started at.
+	 * @return the start time in milliseconds since the epoch, 0 if none has started
+	 */
+	public long getLastStartTime() {
+		return this.lastStartTime;
+	}
+
+	/**
+	 * Request a refresh.
+	 * @param requestId the id of the event asking for the refresh
+	 * @return a future completed with the id of the refresh that served the request
+	 */
+	public CompletableFuture<String> refresh(String requestId) {
+		synchronized (this.monitor) {
+			if (this.scheduled != null) {
+				// a refresh that has not started yet will pick up this request too
+				return this.scheduled.future;
+			}
+			this.scheduled = new ScheduledRefresh(requestId);
+			if (!this.running) {
+				this.running = true;
+				Duration delay = this.delay.get();
+				this.lastDelay = delay;
+				if (log.isDebugEnabled()) {
+					log.debug("Refresh " + requestId + " scheduled in " + delay.toMillis() + "ms");
+				}
+				this.executor.schedule(this::runScheduled, delay.toMillis(), TimeUnit.MILLISECONDS);
+			}
+			return this.scheduled.future;
+		}
+	}
+
+	private void runScheduled() {
+		boolean idle = false;
+		try {
+			while (true) {
+				ScheduledRefresh refresh;
+				synchronized (this.monitor) {
+					refresh = this.scheduled;
+					this.scheduled = null;
+					if (refresh == null) {
+						this.running = false;
+						idle = true;
+						return;
+					}
+				}
+				run(refresh);
+			}
+		}
+		finally {
+			if (!idle) {
+				restart();
+			}
+		}
+	}
+
+	private void run(ScheduledRefresh refresh) {
+		this.lastStartTime = System.currentTimeMillis();
+		long start = System.nanoTime();
+		Throwable failure = null;
+		try {
+			Set<String> keys = this.contextRefresher.refresh();
+			log.info("Keys refreshed " + keys);
+		}
+		catch (Throwable ex) {
+			failure = ex;
+			if (ex instanceof VirtualMachineError) {
+				throw (VirtualMachineError) ex;
+			}
+			log.error("Refresh " + refresh.id + " failed", ex);
+		}
+		finally {
+			this.metrics.refreshed(System.nanoTime() - start, failure == null);
+			if (failure != null) {
+				refresh.future.completeExceptionally(failure);
+			}
+			else {
+				refresh.future.complete(refresh.id);
+			}
+		}
+	}
+
+	private void restart() {
+		// stopped by an error, so hand the requests behind it to a new run
+		synchronized (this.monitor) {
+			this.running = false;
+			if (this.scheduled != null) {
+				try {
+					this.executor.execute(this::runScheduled);
+					this.running = true;
+				}
+				catch (RejectedExecutionException ex) {
+					this.scheduled.future.completeExceptionally(ex);
+					this.scheduled = null;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+	}
+
+	private static final class ScheduledRefresh {
+
+		private final String id;
+
+		private final CompletableFuture<String> future = new CompletableFuture<>();
+
+		private ScheduledRefresh(String id) {
+			this.id = id;
+		}
+
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.event;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * A 128-bit {@link RemoteApplicationEvent} id held as two longs. Its text form is either
+ * the standard UUID form, as used by older versions, or a compact form of 26 characters
+ * in Crockford's base 32, which sorts in the same order as the id. Ids sent in any other
+ * form are kept as plain strings by the events.
+ */
+public final class EventId implements Comparable<EventId>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+	private static final int COMPACT_LENGTH = 26;
+
+	private static final int UUID_LENGTH = 36;
+
+	private static final byte[] DECODING = new byte[128];
+
+	static {
+		Arrays.fill(DECODING, (byte) -1);
+		for (int i = 0; i < ALPHABET.length; i++) {
+			DECODING[ALPHABET[i]] = (byte) i;
+		}
+	}
+
+	private final long mostSignificantBits;
+
+	private final long leastSignificantBits;
+
+	private final boolean uuidForm;
+
+	private EventId(long mostSignificantBits, long leastSignificantBits, boolean uuidForm) {
+		this.mostSignificantBits = mostSignificantBits;
+		this.leastSignificantBits = leastSignificantBits;
+		this.uuidForm = uuidForm;
+	}
+
+	/**
+	 * Create an id written in the compact form.
+	 * @param mostSignificantBits the upper 64 bits
+	 * @param leastSignificantBits the lower 64 bits
+	 * @return the id
+	 */
+	public static EventId of(long mostSignificantBits, long leastSignificantBits) {
+		return new EventId(mostSignificantBits, leastSignificantBits, false);
+	}
+
+	/**
+	 * Create an id written in the standard UUID form.
+	 * @param uuid the uuid
+	 * @return the id
+	 */
+	public static EventId of(UUID uuid) {
+		return new EventId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), true);
+	}
+
+	/**
+	 * Parse the text form of an id. Only text that the id writes back unchanged is
+	 * accepted, so that the id of an event is the same on every node.
+	 * @param value the text form of an id
+	 * @return the id, or null if the text is not in one of the two forms
+	 */
+	public static EventId parse(String value) {
+		if (value == null) {
+			return null;
+		}
+		if (value.length() == COMPACT_LENGTH) {
+			return parseCompact(value);
+		}
+		if (value.length() == UUID_LENGTH) {
+			try {
+				EventId id = of(UUID.fromString(value));
+				return id.toString().equals(value) ? id : null;
+			}
+			catch (IllegalArgumentException ex) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private static EventId parseCompact(String value) {
+		long msb = 0;
+		long lsb = 0;
+		for (int i = 0; i < COMPACT_LENGTH; i++) {
+			char c = value.charAt(i);
+			int digit = (c < DECODING.length) ? DECODING[c] : -1;
+			if (digit < 0 || (i == 0 && digit > 7)) {
+				// not in the alphabet, or more than 128 bits
+				return null;
+			}
+			msb = (msb << 5) | (lsb >>> 59);
+			lsb = (lsb << 5) | digit;
+		}
+		return new EventId(msb, lsb, false);
+	}
+
+	public long getMostSignificantBits() {
+		return this.mostSignificantBits;
+	}
+
+	public long getLeastSignificantBits() {
+		return this.leastSignificantBits;
+	}
+
+	@Override
+	public int compareTo(EventId other) {
+		int result = Long.compareUnsigned(this.mostSignificantBits, other.mostSignificantBits);
+		return (result != 0) ? result : Long.compareUnsigned(this.leastSignificantBits, other.leastSignificantBits);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof EventId)) {
+			return false;
+		}
+		EventId other = (EventId) obj;
+		return this.mostSignificantBits == other.mostSignificantBits
+				&& this.leastSignificantBits == other.leastSignificantBits && this.uuidForm == other.uuidForm;
+	}
+
+	@Override
+	public int hashCode() {
+		long hash = this.mostSignificantBits ^ this.leastSignificantBits;
+		return (int) (hash >> 32) ^ (int) hash;
+	}
+
+	@Override
+	public String toString() {
+		if (this.uuidForm) {
+			return new UUID(this.mostSignificantBits, this.leastSignificantBits).toString();
+		}
+		char[] chars = new char[COMPACT_LENGTH];
+		long msb = this.mostSignificantBits;
+		long lsb = this.leastSignificantBits;
+		for (int i = COMPACT_LENGTH - 1; i >= 0; i--) {
+			chars[i] = ALPHABET[(int) (lsb & 31)];
+			lsb = (lsb >>> 5) | (msb << 59);
+			msb >>>= 5;
+		}
+		return new String(chars);
+	}
+
+}
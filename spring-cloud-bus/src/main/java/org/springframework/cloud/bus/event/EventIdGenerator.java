@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.event;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Strategy for generating the ids of new {@link RemoteApplicationEvent remote events}.
+ * The generator in use is set with
+ * {@link RemoteApplicationEvent#setIdGenerator(EventIdGenerator)}, or by declaring a
+ * bean of this type.
+ */
+@FunctionalInterface
+public interface EventIdGenerator {
+
+	/**
+	 * Time-ordered ids: 48 bits of milliseconds since the epoch followed by 80 random
+	 * bits from a thread-local generator, salted once per JVM. Written in the compact
+	 * form. This is the default.
+	 */
+	EventIdGenerator TIME_ORDERED = new EventIdGenerator() {
+
+		private final long salt = new SecureRandom().nextLong();
+
+		@Override
+		public EventId generateId() {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			long msb = (System.currentTimeMillis() << 16) | (random.nextInt() & 0xFFFF);
+			return EventId.of(msb, random.nextLong() ^ this.salt);
+		}
+
+	};
+
+	/**
+	 * Random UUIDs written in the standard UUID form, as generated by older versions.
+	 */
+	EventIdGenerator RANDOM_UUID = () -> EventId.of(UUID.randomUUID());
+
+	/**
+	 * @return a new, unique event id
+	 */
+	EventId generateId();
+
+}
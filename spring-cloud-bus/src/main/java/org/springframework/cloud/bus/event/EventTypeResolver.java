@@ -0,0 +1,95 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Resolves the class names of remote events carried by acks. Every node receives every
+ * ack, so the results (including names that cannot be resolved) are cached per class
+ * loader, and a burst of acks costs a map lookup rather than a class loader call and a
+ * {@link ClassNotFoundException}. The class loaders are softly referenced.
+ */
+final class EventTypeResolver {
+
+	/**
+	 * Upper bound on the number of names cached per class loader, since the names come
+	 * from other nodes.
+	 */
+	static final int MAX_NAMES = 256;
+
+	private static final Map<ClassLoader, Map<String, Class<?>>> cache = new ConcurrentReferenceHashMap<>();
+
+	private EventTypeResolver() {
+	}
+
+	/**
+	 * Resolve an event class name.
+	 * @param name the fully qualified class name
+	 * @param classLoader the class loader to use, or null for the default
+	 * @return the event type, or {@link UnknownRemoteApplicationEvent} if the name is
+	 * null or is not a remote event known to the class loader
+	 */
+	@SuppressWarnings("unchecked")
+	static Class<? extends RemoteApplicationEvent> resolve(@Nullable String name, @Nullable ClassLoader classLoader) {
+		if (name == null) {
+			return UnknownRemoteApplicationEvent.class;
+		}
+		if (classLoader == null) {
+			classLoader = ClassUtils.getDefaultClassLoader();
+			if (classLoader == null) {
+				// no class loader to key the cache with
+				return load(name, null);
+			}
+		}
+		Map<String, Class<?>> types = cache.computeIfAbsent(classLoader, (key) -> new ConcurrentHashMap<>());
+		Class<? extends RemoteApplicationEvent> type = (Class<? extends RemoteApplicationEvent>) types.get(name);
+		if (type == null) {
+			type = load(name, classLoader);
+			if (types.size() < MAX_NAMES) {
+				types.put(name, type);
+			}
+		}
+		return type;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends RemoteApplicationEvent> load(String name, @Nullable ClassLoader classLoader) {
+		try {
+			Class<?> type = ClassUtils.forName(name, classLoader);
+			if (RemoteApplicationEvent.class.isAssignableFrom(type)) {
+				return (Class<? extends RemoteApplicationEvent>) type;
+			}
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			// not an event this application knows about
+		}
+		return UnknownRemoteApplicationEvent.class;
+	}
+
+	/* for testing */ static boolean isCached(String name, ClassLoader classLoader) {
+		Map<String, Class<?>> types = cache.get(classLoader);
+		return types != null && types.containsKey(name);
+	}
+
+}
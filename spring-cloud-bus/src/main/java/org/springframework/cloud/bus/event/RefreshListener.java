@@ -17,10 +17,12 @@
 package org.springframework.cloud.bus.event;
 
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.cloud.bus.BusMetrics;
 import org.springframework.cloud.bus.ServiceMatcher;
 import org.springframework.cloud.context.refresh.ContextRefresher;
 import org.springframework.context.ApplicationListener;
@@ -37,16 +39,54 @@ public class RefreshListener implements ApplicationListener<RefreshRemoteApplica
 
 	private ServiceMatcher serviceMatcher;
 
+	private CoalescingRefresher coalescingRefresher;
+
+	private BusMetrics metrics = BusMetrics.NONE;
+
 	public RefreshListener(ContextRefresher contextRefresher, ServiceMatcher serviceMatcher) {
 		this.contextRefresher = contextRefresher;
 		this.serviceMatcher = serviceMatcher;
 	}
 
+	public RefreshListener(CoalescingRefresher coalescingRefresher, ServiceMatcher serviceMatcher) {
+		this.coalescingRefresher = coalescingRefresher;
+		this.serviceMatcher = serviceMatcher;
+	}
+
+	/**
+	 * Record how long each refresh takes. Refreshes run in the background are recorded by
+	 * the {@link CoalescingRefresher} instead.
+	 * @param metrics the metrics to record to
+	 */
+	public void setMetrics(BusMetrics metrics) {
+		this.metrics = (metrics != null) ? metrics : BusMetrics.NONE;
+	}
+
 	@Override
 	public void onApplicationEvent(RefreshRemoteApplicationEvent event) {
 		log.info("Received remote refresh request.");
 		if (serviceMatcher.isForSelf(event)) {
-			Set<String> keys = this.contextRefresher.refresh();
+			if (this.coalescingRefresher != null) {
+				CompletableFuture<String> refresh = this.coalescingRefresher.refresh(event.getId());
+				// the bus acks the event when the refresh has run, not now
+				event.setRefresh(refresh);
+				refresh.whenComplete((refreshId, ex) -> {
+					if (ex == null && log.isDebugEnabled()) {
+						log.debug("Refresh request " + event.getId() + " served by refresh " + refreshId);
+					}
+				});
+				return;
+			}
+			long start = System.nanoTime();
+			Set<String> keys;
+			try {
+				keys = this.contextRefresher.refresh();
+			}
+			catch (RuntimeException ex) {
+				this.metrics.refreshed(System.nanoTime() - start, false);
+				throw ex;
+			}
+			this.metrics.refreshed(System.nanoTime() - start, true);
 			log.info("Keys refreshed " + keys);
 		}
 		else {
@@ -16,12 +16,24 @@
 
 package org.springframework.cloud.bus.event;
 
+import java.util.concurrent.CompletableFuture;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * @author Spencer Gibb
  */
 @SuppressWarnings("serial")
 public class RefreshRemoteApplicationEvent extends RemoteApplicationEvent {
 
+	/**
+	 * Completed with the id of the refresh that served this event, which is not this
+	 * event's own id if the request was coalesced with others. Local only, never sent
+	 * over the bus.
+	 */
+	@JsonIgnore
+	private transient CompletableFuture<String> refresh;
+
 	@SuppressWarnings("unused")
 	private RefreshRemoteApplicationEvent() {
 		// for serializers
@@ -36,4 +48,19 @@ public class RefreshRemoteApplicationEvent extends RemoteApplicationEvent {
 		super(source, originService, destination);
 	}
 
+	/**
+	 * The refresh that serves this event when it runs after the event was published,
+	 * e.g. because it was coalesced with others or delayed. The event is acked once it
+	 * completes.
+	 * @return the refresh, or null if it ran while the event was published
+	 */
+	@JsonIgnore
+	public CompletableFuture<String> getRefresh() {
+		return this.refresh;
+	}
+
+	public void setRefresh(CompletableFuture<String> refresh) {
+		this.refresh = refresh;
+	}
+
 }
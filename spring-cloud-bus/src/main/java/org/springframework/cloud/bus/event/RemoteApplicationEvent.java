@@ -16,9 +16,12 @@
 
 package org.springframework.cloud.bus.event;
 
-import java.util.UUID;
+import java.util.Collections;
+import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
 import org.springframework.context.ApplicationEvent;
@@ -41,11 +44,23 @@ public abstract class RemoteApplicationEvent extends ApplicationEvent {
 
 	protected static final PathDestinationFactory DEFAULT_DESTINATION_FACTORY = new PathDestinationFactory();
 
+	private static volatile EventIdGenerator idGenerator = EventIdGenerator.TIME_ORDERED;
+
 	private String originService;
 
 	private String destinationService;
 
-	private String id;
+	private EventId eventId;
+
+	// an id sent in a form that EventId does not parse
+	private String rawId;
+
+	// from the envelope of a received event, not part of the payload
+	private transient long sendTimestamp;
+
+	private transient long sendSequence = -1;
+
+	private transient Map<String, Object> envelope = Collections.emptyMap();
 
 	protected RemoteApplicationEvent() {
 		// for serialization libs like jackson
@@ -69,7 +84,8 @@ public abstract class RemoteApplicationEvent extends ApplicationEvent {
 		Assert.notNull(destination, "destination may not be null");
 		this.destinationService = destination.getDestinationAsString();
 		Assert.hasText(destinationService, "destinationService may not be empty");
-		this.id = UUID.randomUUID().toString();
+		// replaced by the id of a received event, kept if it was sent without one
+		this.eventId = idGenerator.generateId();
 	}
 
 	@Deprecated
@@ -85,8 +101,87 @@ public abstract class RemoteApplicationEvent extends ApplicationEvent {
 		return this.destinationService;
 	}
 
+	/**
+	 * Set the strategy used for the ids of new events. Defaults to
+	 * {@link EventIdGenerator#TIME_ORDERED}.
+	 * @param generator the id generator
+	 */
+	public static void setIdGenerator(EventIdGenerator generator) {
+		Assert.notNull(generator, "generator may not be null");
+		idGenerator = generator;
+	}
+
+	@JsonProperty("id")
 	public String getId() {
-		return this.id;
+		if (this.rawId != null) {
+			return this.rawId;
+		}
+		return getEventId().toString();
+	}
+
+	/**
+	 * @return the id of this event, or null if it was received in a form that is not
+	 * parsed
+	 * @see EventId#parse(String)
+	 */
+	@JsonIgnore
+	public EventId getEventId() {
+		return this.eventId;
+	}
+
+	@JsonProperty("id")
+	private void setId(String id) {
+		if (id == null) {
+			// keep the id generated on construction
+			return;
+		}
+		this.eventId = EventId.parse(id);
+		this.rawId = (this.eventId != null) ? null : id;
+	}
+
+	/**
+	 * @return the time the origin sent this event, in milliseconds since the epoch, or 0
+	 * if it was not received or the sender did not say
+	 */
+	@JsonIgnore
+	public long getSendTimestamp() {
+		return this.sendTimestamp;
+	}
+
+	/**
+	 * @return the sequence number of this event among the messages sent by its origin
+	 * instance, or -1 if not known
+	 */
+	@JsonIgnore
+	public long getSendSequence() {
+		return this.sendSequence;
+	}
+
+	/**
+	 * @return the headers of the message this event was received in, empty if it was
+	 * not received
+	 */
+	@JsonIgnore
+	public Map<String, Object> getEnvelope() {
+		return (this.envelope != null) ? this.envelope : Collections.emptyMap();
+	}
+
+	/**
+	 * Set the headers of the message a received event came in.
+	 * @param envelope the message headers
+	 */
+	public void setEnvelope(Map<String, Object> envelope) {
+		this.envelope = envelope;
+	}
+
+	/**
+	 * Set the send time of a received event, from the envelope of its message.
+	 * @param timestamp the time the origin sent the event
+	 * @param sequence the sequence number of the event at the origin, or -1
+	 */
+	public void setSendTime(long timestamp, long sequence) {
+		this.sendTimestamp = timestamp;
+		this.sendSequence = sequence;
 	}
 
 	@Override
@@ -94,7 +189,8 @@ public abstract class RemoteApplicationEvent extends ApplicationEvent {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((this.destinationService == null) ? 0 : this.destinationService.hashCode());
-		result = prime * result + ((this.id == null) ? 0 : this.id.hashCode());
+		EventId thisId = getEventId();
+		result = prime * result + ((thisId != null) ? thisId.hashCode() : getId().hashCode());
 		result = prime * result + ((this.originService == null) ? 0 : this.originService.hashCode());
 		return result;
 	}
@@ -119,12 +215,13 @@ public abstract class RemoteApplicationEvent extends ApplicationEvent {
 		else if (!this.destinationService.equals(other.destinationService)) {
 			return false;
 		}
-		if (this.id == null) {
-			if (other.id != null) {
+		EventId thisId = getEventId();
+		if (thisId != null) {
+			if (!thisId.equals(other.getEventId())) {
 				return false;
 			}
 		}
-		else if (!this.id.equals(other.id)) {
+		else if (!getId().equals(other.getId())) {
 			return false;
 		}
 		if (this.originService == null) {
@@ -140,7 +237,7 @@ public abstract class RemoteApplicationEvent extends ApplicationEvent {
 
 	@Override
 	public String toString() {
-		return new ToStringCreator(this).append("id", id)
+		return new ToStringCreator(this).append("id", getId())
 			.append("originService", originService)
 			.append("destinationService", destinationService)
 			.toString();
@@ -23,11 +23,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.boot.actuate.web.exchanges.HttpExchangeRepository;
+import org.springframework.cloud.bus.AckTracker;
 import org.springframework.context.event.EventListener;
 
 /**
- * A listener for sends and acks of remote application events. Inserts a record for each
- * signal in the {@link HttpExchangeRepository}.
+ * A listener for sends and acks of remote application events. Keeps a record of each
+ * event sent, with the acks received for it, in an {@link AckTracker}.
  *
  * @author Dave Syer
  */
@@ -35,22 +36,39 @@ public class TraceListener {
 
 	private static Log log = LogFactory.getLog(TraceListener.class);
 
-	private HttpExchangeRepository repository;
+	private final AckTracker ackTracker;
 
+	/**
+	 * Create a listener that keeps its records in a tracker of its own.
+	 * @param repository not used, bus signals are not HTTP exchanges
+	 * @deprecated in favour of {@link #TraceListener(AckTracker)}
+	 */
+	@Deprecated
 	public TraceListener(HttpExchangeRepository repository) {
-		this.repository = repository;
+		this(new AckTracker());
+	}
+
+	public TraceListener(AckTracker ackTracker) {
+		this.ackTracker = ackTracker;
 	}
 
 	@EventListener
 	public void onAck(AckRemoteApplicationEvent event) {
-		Map<String, Object> trace = getReceivedTrace(event);
-		// FIXME boot 2 this.repository.add(trace);
+		getReceivedTrace(event);
+		this.ackTracker.acknowledge(event);
 	}
 
 	@EventListener
 	public void onSend(SentApplicationEvent event) {
-		Map<String, Object> trace = getSentTrace(event);
-		// FIXME boot 2 this.repository.add(trace);
+		getSentTrace(event);
+		this.ackTracker.trace(event);
+	}
+
+	/**
+	 * @return the tracker holding the records of the traced events
+	 */
+	public AckTracker getAckTracker() {
+		return this.ackTracker;
 	}
 
 	protected Map<String, Object> getSentTrace(SentApplicationEvent event) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.jackson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.exc.InvalidTypeIdException;
+import tools.jackson.databind.jsontype.TypeDeserializer;
+
+import org.springframework.cloud.bus.event.BatchRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.cloud.bus.event.UnknownRemoteApplicationEvent;
+
+/**
+ * Reads each event of a {@link BatchRemoteApplicationEvent} on its own, so that an event
+ * of a type this node does not know (e.g. from a newer version during a rolling upgrade)
+ * becomes an {@link UnknownRemoteApplicationEvent} instead of failing the whole batch.
+ */
+class BatchedEventDeserializer extends ValueDeserializer<RemoteApplicationEvent> {
+
+	@Override
+	public RemoteApplicationEvent deserialize(JsonParser parser, DeserializationContext context) {
+		JsonNode node = context.readTree(parser);
+		try {
+			return context.readTreeAsValue(node, RemoteApplicationEvent.class);
+		}
+		catch (InvalidTypeIdException e) {
+			return new UnknownRemoteApplicationEvent(new Object(), e.getTypeId(),
+					node.toString().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Override
+	public Object deserializeWithType(JsonParser parser, DeserializationContext context,
+			TypeDeserializer typeDeserializer) {
+		// the type id is resolved per event, by deserialize
+		return deserialize(parser, context);
+	}
+
+	/**
+	 * Mix-in that reads the events of a batch with a {@link BatchedEventDeserializer}.
+	 */
+	abstract static class MixIn {
+
+		@JsonDeserialize(contentUsing = BatchedEventDeserializer.class)
+		private List<RemoteApplicationEvent> events;
+
+	}
+
+}
@@ -18,12 +18,27 @@ package org.springframework.cloud.bus.jackson;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.JacksonModule;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
 import tools.jackson.databind.cfg.MapperBuilder;
 import tools.jackson.databind.exc.InvalidTypeIdException;
 import tools.jackson.databind.json.JsonMapper;
@@ -31,22 +46,36 @@ import tools.jackson.dataformat.cbor.CBORFactory;
 import tools.jackson.dataformat.cbor.CBORMapper;
 
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.cloud.bus.BusAutoConfiguration;
+import org.springframework.cloud.bus.BusConstants;
+import org.springframework.cloud.bus.BusEnvelope;
+import org.springframework.cloud.bus.BusEnvelopeFilter;
+import org.springframework.cloud.bus.BusMetrics;
 import org.springframework.cloud.bus.ConditionalOnBusEnabled;
 import org.springframework.cloud.bus.endpoint.RefreshBusEndpoint;
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.BatchRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.EnvironmentChangeRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.PingRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.cloud.bus.event.ShutdownRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.UnknownRemoteApplicationEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.type.filter.AssignableTypeFilter;
-import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.converter.AbstractMessageConverter;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.MimeType;
@@ -63,6 +92,7 @@ import org.springframework.util.MimeTypeUtils;
 @ConditionalOnClass({ RefreshBusEndpoint.class, ObjectMapper.class })
 @AutoConfigureBefore(value = BusAutoConfiguration.class,
 		name = "org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration")
+@ImportRuntimeHints(BusJacksonRuntimeHints.class)
 public class BusJacksonAutoConfiguration {
 
 	// needed in the case where @RemoteApplicationEventScan is not used
@@ -84,20 +114,88 @@ public class BusJacksonAutoConfiguration {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	protected static class BusJacksonMetricsConfiguration {
+
+		@Bean
+		public MeterBinder busJacksonConverterMetrics(ObjectProvider<AbstractMessageConverter> converters) {
+			return registry -> converters.orderedStream()
+				.filter(BusJacksonMessageConverter.class::isInstance)
+				.map(BusJacksonMessageConverter.class::cast)
+				.forEach(converter -> bindTo(converter, registry));
+		}
+
+		private static void bindTo(BusJacksonMessageConverter converter, MeterRegistry registry) {
+			Gauge
+				.builder("spring.cloud.bus.converter.readers", converter,
+						BusJacksonMessageConverter::getCachedReaderCount)
+				.description("Number of remote event types with a cached reader")
+				.tag("content.type", converter.getSupportedMimeTypes().get(0).toString())
+				.register(registry);
+		}
+
+	}
+
 }
 
 class BusJacksonMessageConverter extends AbstractMessageConverter implements InitializingBean {
 
 	private static final Log log = LogFactory.getLog(BusJacksonMessageConverter.class);
 
-	private static final String DEFAULT_PACKAGE = ClassUtils.getPackageName(RemoteApplicationEvent.class);
+	static final String DEFAULT_PACKAGE = ClassUtils.getPackageName(RemoteApplicationEvent.class);
+
+	/**
+	 * The event types of the bus itself, registered without scanning.
+	 */
+	static final List<Class<?>> BUILT_IN_TYPES = List.of(AckRemoteApplicationEvent.class,
+			AckRollupRemoteApplicationEvent.class, BatchRemoteApplicationEvent.class,
+			EnvironmentChangeRemoteApplicationEvent.class, PingRemoteApplicationEvent.class,
+			RefreshRemoteApplicationEvent.class, ShutdownRemoteApplicationEvent.class,
+			UnknownRemoteApplicationEvent.class);
+
+	/**
+	 * Names of the scanned event types by class loader and package. Bootstrap, parent and
+	 * child contexts, and the contexts created to refresh, all share the scans of their
+	 * class loader. Only names are kept, so that the class loader is weakly reachable and
+	 * can be collected once discarded.
+	 */
+	private static final Map<ClassLoader, Map<String, List<String>>> scanCache = new WeakHashMap<>();
+
+	/**
+	 * Upper bound on the number of target types with a cached reader.
+	 */
+	static final int READER_CACHE_LIMIT = 256;
+
+	/**
+	 * Upper bound on the number of type ids remembered as unknown, so that events of
+	 * those types are not deserialized.
+	 */
+	static final int UNKNOWN_TYPE_CACHE_LIMIT = 256;
+
+	private static final String TYPE_PROPERTY = RemoteApplicationEvent.class.getAnnotation(JsonTypeInfo.class)
+		.property();
 
 	private final MapperBuilder mapperBuilder;
 
 	private final boolean mapperCreated;
 
+	private final List<Class<?>> moduleTypes = new ArrayList<>();
+
+	private volatile ObjectMapper mapper;
+
+	private volatile Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+	private volatile Set<String> unknownTypeIds = ConcurrentHashMap.newKeySet();
+
+	private volatile Set<String> knownTypeIds;
+
 	private String[] packagesToScan = new String[] { DEFAULT_PACKAGE };
 
+	private BusEnvelopeFilter envelopeFilter;
+
+	private BusMetrics metrics = BusMetrics.NONE;
+
 	private BusJacksonMessageConverter() {
 		this(null);
 	}
@@ -114,11 +212,17 @@ class BusJacksonMessageConverter extends AbstractMessageConverter implements Ini
 		if (objectMapper != null) {
 			this.mapperBuilder = objectMapper.rebuild();
 			this.mapperCreated = false;
+			for (JacksonModule module : objectMapper.registeredModules()) {
+				if (module instanceof SubtypeModule) {
+					this.moduleTypes.addAll(Arrays.asList(((SubtypeModule) module).getSubtypes()));
+				}
+			}
 		}
 		else {
 			this.mapperBuilder = JsonMapper.builder();
 			this.mapperCreated = true;
 		}
+		this.mapperBuilder.addMixIn(BatchRemoteApplicationEvent.class, BatchedEventDeserializer.MixIn.class);
 	}
 
 	/* for testing */ boolean isMapperCreated() {
@@ -129,37 +233,116 @@ class BusJacksonMessageConverter extends AbstractMessageConverter implements Ini
 		return this.mapperBuilder;
 	}
 
+	/* for testing */ Set<String> getUnknownTypeIds() {
+		return this.unknownTypeIds;
+	}
+
+	/* for testing */ Set<String> getKnownTypeIds() {
+		return this.knownTypeIds;
+	}
+
+	int getCachedReaderCount() {
+		return this.readers.size();
+	}
+
+	@Autowired(required = false)
+	public void setEnvelopeFilter(BusEnvelopeFilter envelopeFilter) {
+		this.envelopeFilter = envelopeFilter;
+	}
+
+	@Autowired(required = false)
+	public void setMetrics(BusMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public void setPackagesToScan(String[] packagesToScan) {
 		List<String> packages = new ArrayList<>(Arrays.asList(packagesToScan));
 		if (!packages.contains(DEFAULT_PACKAGE)) {
 			packages.add(DEFAULT_PACKAGE);
 		}
 		this.packagesToScan = packages.toArray(new String[0]);
+		if (this.mapper != null) {
+			// already initialized, so the new packages need a fresh mapper
+			initializeMapper();
+		}
 	}
 
 	private Class<?>[] findSubTypes() {
-		List<Class<?>> types = new ArrayList<>();
-		if (this.packagesToScan != null) {
-			for (String pkg : this.packagesToScan) {
-				ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(
-						false);
-				provider.addIncludeFilter(new AssignableTypeFilter(RemoteApplicationEvent.class));
-
-				Set<BeanDefinition> components = provider.findCandidateComponents(pkg);
-				for (BeanDefinition component : components) {
-					try {
-						types.add(Class.forName(component.getBeanClassName()));
-					}
-					catch (ClassNotFoundException e) {
-						throw new IllegalStateException("Failed to scan classpath for remote event classes", e);
-					}
+		RemoteApplicationEventIndex index = RemoteApplicationEventIndex.load(getClassLoader());
+		Set<Class<?>> types = findSubTypes(this.packagesToScan, index);
+		if (log.isDebugEnabled()) {
+			log.debug("Found sub types" + ((index != null) ? " in index: " : ": ") + types);
+		}
+		return types.toArray(new Class<?>[0]);
+	}
+
+	/**
+	 * Find the remote event types in some packages, from an index if there is one.
+	 * @param packagesToScan the packages, which need not include the bus events
+	 * @param index the index or null to scan the classpath
+	 * @return the built-in types and the types found in the packages
+	 */
+	static Set<Class<?>> findSubTypes(String @Nullable [] packagesToScan, @Nullable RemoteApplicationEventIndex index) {
+		Set<Class<?>> types = new LinkedHashSet<>(BUILT_IN_TYPES);
+		if (packagesToScan != null) {
+			for (String pkg : packagesToScan) {
+				if (index != null) {
+					types.addAll(index.getTypes(pkg));
+				}
+				else {
+					types.addAll(scan(pkg));
 				}
 			}
 		}
-		if (log.isDebugEnabled()) {
-			log.debug("Found sub types: " + types);
+		return types;
+	}
+
+	/**
+	 * Scan a package for remote event types, reusing the result of an earlier scan with
+	 * the same class loader.
+	 * @param pkg the package
+	 * @return the types found in the package or its subpackages
+	 */
+	static List<Class<?>> scan(String pkg) {
+		ClassLoader classLoader = getClassLoader();
+		Map<String, List<String>> scans;
+		synchronized (scanCache) {
+			scans = scanCache.computeIfAbsent(classLoader, (key) -> new ConcurrentHashMap<>());
 		}
-		return types.toArray(new Class<?>[0]);
+		List<Class<?>> types = new ArrayList<>();
+		for (String typeName : scans.computeIfAbsent(pkg, (key) -> doScan(key, classLoader))) {
+			try {
+				types.add(ClassUtils.forName(typeName, classLoader));
+			}
+			catch (ClassNotFoundException e) {
+				throw new IllegalStateException("Failed to scan classpath for remote event classes", e);
+			}
+		}
+		return types;
+	}
+
+	private static List<String> doScan(String pkg, ClassLoader classLoader) {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(classLoader));
+		provider.addIncludeFilter(new AssignableTypeFilter(RemoteApplicationEvent.class));
+
+		List<String> typeNames = new ArrayList<>();
+		for (BeanDefinition component : provider.findCandidateComponents(pkg)) {
+			typeNames.add(component.getBeanClassName());
+		}
+		return List.copyOf(typeNames);
+	}
+
+	/* for testing */ static List<String> getScannedTypeNames(ClassLoader classLoader, String pkg) {
+		synchronized (scanCache) {
+			Map<String, List<String>> scans = scanCache.get(classLoader);
+			return (scans != null) ? scans.get(pkg) : null;
+		}
+	}
+
+	private static ClassLoader getClassLoader() {
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		return (classLoader != null) ? classLoader : BusJacksonMessageConverter.class.getClassLoader();
 	}
 
 	@Override
@@ -170,27 +353,21 @@ class BusJacksonMessageConverter extends AbstractMessageConverter implements Ini
 
 	@Override
 	public Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
-		ObjectMapper mapper = this.mapperBuilder.build();
+		if (this.envelopeFilter != null && this.envelopeFilter.shouldDiscard(message.getHeaders())) {
+			this.metrics.eventReceived(BusEnvelope.getHeader(message.getHeaders(), BusConstants.TYPE_HEADER),
+					BusEnvelope.getHeader(message.getHeaders(), BusConstants.DESTINATION_SERVICE_HEADER),
+					BusMetrics.Reception.FILTERED);
+			return BusEnvelope.DISCARDED;
+		}
 		Object result = null;
 		try {
 			Object payload = message.getPayload();
 
 			if (payload instanceof byte[]) {
-				try {
-					result = mapper.readValue((byte[]) payload, targetClass);
-				}
-				catch (InvalidTypeIdException e) {
-					return new UnknownRemoteApplicationEvent(new Object(), e.getTypeId(), (byte[]) payload);
-				}
+				result = read(targetClass, payload, message.getHeaders());
 			}
 			else if (payload instanceof String) {
-				try {
-					result = mapper.readValue((String) payload, targetClass);
-				}
-				catch (InvalidTypeIdException e) {
-					return new UnknownRemoteApplicationEvent(new Object(), e.getTypeId(),
-							((String) payload).getBytes());
-				}
+				result = read(targetClass, payload, message.getHeaders());
 				// workaround for
 				// https://github.com/spring-cloud/spring-cloud-stream/issues/1564
 			}
@@ -202,12 +379,147 @@ class BusJacksonMessageConverter extends AbstractMessageConverter implements Ini
 			this.logger.error(e.getMessage(), e);
 			return null;
 		}
+		if (result instanceof RemoteApplicationEvent) {
+			BusEnvelope.stamp((RemoteApplicationEvent) result, message.getHeaders());
+		}
 		return result;
 	}
 
+	private Object read(Class<?> targetClass, Object payload, MessageHeaders headers) {
+		long start = System.nanoTime();
+		// type ids are only known to be unknown for the base type
+		Set<String> unknownTypeIds = (targetClass == RemoteApplicationEvent.class) ? this.unknownTypeIds : null;
+		if (unknownTypeIds != null && (this.knownTypeIds != null || !unknownTypeIds.isEmpty())) {
+			String typeId = peekTypeId(payload, headers);
+			if (typeId != null && isUnknown(typeId, unknownTypeIds)) {
+				return unknown(typeId, payload);
+			}
+		}
+		try {
+			ObjectReader reader = obtainReader(targetClass);
+			Object result = (payload instanceof byte[]) ? reader.readValue((byte[]) payload)
+					: reader.readValue((String) payload);
+			if (result != null) {
+				// String payloads are measured in chars, close enough for JSON
+				int size = (payload instanceof byte[]) ? ((byte[]) payload).length : ((String) payload).length();
+				this.metrics.eventRead(BusEnvelope.getTypeId(result.getClass()), size, System.nanoTime() - start);
+			}
+			return result;
+		}
+		catch (InvalidTypeIdException e) {
+			// the type id was not found before the read, or the mapper has no such subtype
+			if (unknownTypeIds != null && e.getTypeId() != null && unknownTypeIds.size() < UNKNOWN_TYPE_CACHE_LIMIT) {
+				unknownTypeIds.add(e.getTypeId());
+			}
+			return unknown(e.getTypeId(), payload);
+		}
+	}
+
+	/**
+	 * Whether the mapper cannot read events of a type, found without reading one.
+	 * @param typeId the type id of an event
+	 * @param unknownTypeIds the type ids that already failed to read
+	 * @return true if the type is not one the mapper knows
+	 */
+	private boolean isUnknown(String typeId, Set<String> unknownTypeIds) {
+		Set<String> knownTypeIds = this.knownTypeIds;
+		if (knownTypeIds != null && knownTypeIds.contains(typeId)) {
+			return false;
+		}
+		// a mapper that was passed in may have subtypes registered by other modules
+		return (knownTypeIds != null && this.mapperCreated) || unknownTypeIds.contains(typeId);
+	}
+
+	private UnknownRemoteApplicationEvent unknown(String typeId, Object payload) {
+		this.metrics.unknownEvent(typeId);
+		byte[] bytes = (payload instanceof byte[]) ? (byte[]) payload : ((String) payload).getBytes();
+		return new UnknownRemoteApplicationEvent(new Object(), typeId, bytes);
+	}
+
+	/**
+	 * Find the type id of an event without deserializing it, from the envelope header
+	 * or else from the type property, which senders write first.
+	 * @param payload the serialized event
+	 * @param headers the message headers
+	 * @return the type id or null if it cannot be found cheaply
+	 */
+	private String peekTypeId(Object payload, MessageHeaders headers) {
+		String typeId = BusEnvelope.getHeader(headers, BusConstants.TYPE_HEADER);
+		if (typeId != null) {
+			return typeId;
+		}
+		ObjectMapper mapper = obtainMapper();
+		try (JsonParser parser = (payload instanceof byte[]) ? mapper.createParser((byte[]) payload)
+				: mapper.createParser((String) payload)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return null;
+			}
+			while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+				String name = parser.currentName();
+				JsonToken value = parser.nextToken();
+				if (TYPE_PROPERTY.equals(name)) {
+					return (value == JsonToken.VALUE_STRING) ? parser.getString() : null;
+				}
+				parser.skipChildren();
+			}
+		}
+		catch (JacksonException e) {
+			// leave it to the full read to report
+		}
+		return null;
+	}
+
 	@Override
 	public void afterPropertiesSet() {
-		this.mapperBuilder.subtypeResolver().registerSubtypes(findSubTypes());
+		initializeMapper();
+	}
+
+	private synchronized void initializeMapper() {
+		Class<?>[] subTypes = findSubTypes();
+		this.mapperBuilder.subtypeResolver().registerSubtypes(subTypes);
+		this.mapper = this.mapperBuilder.build();
+		// readers are bound to the mapper they came from
+		this.readers = new ConcurrentHashMap<>();
+		// and the new mapper may know more types
+		this.unknownTypeIds = ConcurrentHashMap.newKeySet();
+		Set<String> knownTypeIds = new LinkedHashSet<>();
+		for (Class<?> type : subTypes) {
+			knownTypeIds.add(BusEnvelope.getTypeId(type));
+		}
+		for (Class<?> type : this.moduleTypes) {
+			knownTypeIds.add(BusEnvelope.getTypeId(type));
+		}
+		this.knownTypeIds = Set.copyOf(knownTypeIds);
+	}
+
+	private ObjectReader obtainReader(Class<?> targetClass) {
+		Map<Class<?>, ObjectReader> readers = this.readers;
+		ObjectReader reader = readers.get(targetClass);
+		if (reader == null) {
+			reader = obtainMapper().readerFor(targetClass);
+			if (readers.size() < READER_CACHE_LIMIT) {
+				ObjectReader existing = readers.putIfAbsent(targetClass, reader);
+				if (existing != null) {
+					reader = existing;
+				}
+			}
+		}
+		return reader;
+	}
+
+	private ObjectMapper obtainMapper() {
+		ObjectMapper mapper = this.mapper;
+		if (mapper == null) {
+			synchronized (this) {
+				mapper = this.mapper;
+				if (mapper == null) {
+					// not initialized as a bean, fall back to the builder as configured
+					mapper = this.mapperBuilder.build();
+					this.mapper = mapper;
+				}
+			}
+		}
+		return mapper;
 	}
 
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.jackson;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * {@link RuntimeHintsRegistrar} for the built-in remote events and the event index. The
+ * custom events are registered at build time by
+ * {@link RemoteApplicationEventAotProcessor}.
+ */
+class BusJacksonRuntimeHints implements RuntimeHintsRegistrar {
+
+	private static final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+	@Override
+	public void registerHints(RuntimeHints hints, @Nullable ClassLoader classLoader) {
+		hints.resources().registerPattern(RemoteApplicationEventIndex.INDEX_LOCATION);
+		registerEventHints(hints.reflection(), RemoteApplicationEvent.class);
+		registerEventHints(hints.reflection(), BusJacksonMessageConverter.BUILT_IN_TYPES.toArray(new Class<?>[0]));
+		hints.reflection().registerType(SubtypeModule.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+		hints.reflection().registerType(BatchedEventDeserializer.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+		hints.reflection().registerType(BatchedEventDeserializer.MixIn.class, (type) -> type.withField("events"));
+	}
+
+	/**
+	 * Register what Jackson needs to bind remote events, including the private creators
+	 * and {@code @JsonProperty} methods, and what {@code Class.forName} needs to load
+	 * them by name (e.g. for acks).
+	 * @param hints the reflection hints
+	 * @param types the event types
+	 */
+	static void registerEventHints(ReflectionHints hints, Class<?>... types) {
+		bindingRegistrar.registerReflectionHints(hints, types);
+		for (Class<?> type : types) {
+			hints.registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+					MemberCategory.INVOKE_DECLARED_METHODS);
+		}
+	}
+
+}
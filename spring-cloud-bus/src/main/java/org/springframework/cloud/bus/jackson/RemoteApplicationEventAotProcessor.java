@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.jackson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+/**
+ * {@link BeanFactoryInitializationAotProcessor} that finds the custom remote events at
+ * build time. They are registered for reflection and listed in a generated event index,
+ * so that an AOT-processed application (in particular a native image) does not scan the
+ * classpath when it starts.
+ */
+class RemoteApplicationEventAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+	private static final String BUS_JSON_CONVERTER = "busJsonConverter";
+
+	private static final String PACKAGES_TO_SCAN = "packagesToScan";
+
+	@Override
+	public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+		if (!beanFactory.containsBeanDefinition(BUS_JSON_CONVERTER)) {
+			// the bus is disabled
+			return null;
+		}
+		// the build-time classpath is the source of truth, not an index from an earlier
+		// build
+		Set<Class<?>> types = BusJacksonMessageConverter.findSubTypes(getPackagesToScan(beanFactory), null);
+		return new Contribution(types);
+	}
+
+	private String[] getPackagesToScan(ConfigurableListableBeanFactory beanFactory) {
+		Set<String> packages = new LinkedHashSet<>();
+		packages.add(BusJacksonMessageConverter.DEFAULT_PACKAGE);
+		BeanDefinition definition = beanFactory.getBeanDefinition(BUS_JSON_CONVERTER);
+		Object value = definition.getPropertyValues().get(PACKAGES_TO_SCAN);
+		if (value instanceof String[] names) {
+			packages.addAll(Arrays.asList(names));
+		}
+		return packages.toArray(new String[0]);
+	}
+
+	private static final class Contribution implements BeanFactoryInitializationAotContribution {
+
+		private final List<Class<?>> types;
+
+		private Contribution(Set<Class<?>> types) {
+			this.types = new ArrayList<>(types);
+		}
+
+		@Override
+		public void applyTo(GenerationContext generationContext,
+				BeanFactoryInitializationCode beanFactoryInitializationCode) {
+			BusJacksonRuntimeHints.registerEventHints(generationContext.getRuntimeHints().reflection(),
+					this.types.toArray(new Class<?>[0]));
+			StringBuilder index = new StringBuilder();
+			for (Class<?> type : this.types) {
+				index.append(type.getName()).append('\n');
+			}
+			generationContext.getGeneratedFiles()
+				.addResourceFile(RemoteApplicationEventIndex.INDEX_LOCATION, index.toString());
+		}
+
+	}
+
+}
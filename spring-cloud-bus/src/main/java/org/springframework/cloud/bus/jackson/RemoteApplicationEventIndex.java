@@ -0,0 +1,130 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.jackson;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.util.ClassUtils;
+
+/**
+ * The {@code RemoteApplicationEvent} types listed at build time by the
+ * {@code spring-cloud-bus-indexer} annotation processor, so that they do not have to be
+ * found by scanning the classpath. As with the Spring candidate components index, once
+ * any index is present it is trusted to be complete: every jar with custom events needs
+ * to be built with the processor. Set {@code spring.cloud.bus.index.ignore=true} (as a
+ * system property or in {@code spring.properties}) to scan anyway.
+ */
+final class RemoteApplicationEventIndex {
+
+	/**
+	 * Location of the index files, one fully qualified class name per line.
+	 */
+	static final String INDEX_LOCATION = "META-INF/spring-cloud-bus/events.idx";
+
+	/**
+	 * Flag to ignore the index and scan the classpath.
+	 */
+	static final String IGNORE_INDEX = "spring.cloud.bus.index.ignore";
+
+	private static final Log log = LogFactory.getLog(RemoteApplicationEventIndex.class);
+
+	private final ClassLoader classLoader;
+
+	private final Set<String> typeNames;
+
+	private RemoteApplicationEventIndex(ClassLoader classLoader, Set<String> typeNames) {
+		this.classLoader = classLoader;
+		this.typeNames = typeNames;
+	}
+
+	/**
+	 * Load all the index files visible to a class loader.
+	 * @param classLoader the class loader to load the index and the types with
+	 * @return the index, or null if there is none or it should be ignored
+	 */
+	static RemoteApplicationEventIndex load(ClassLoader classLoader) {
+		if (SpringProperties.getFlag(IGNORE_INDEX)) {
+			return null;
+		}
+		try {
+			Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+			if (!urls.hasMoreElements()) {
+				return null;
+			}
+			Set<String> typeNames = new LinkedHashSet<>();
+			while (urls.hasMoreElements()) {
+				read(urls.nextElement(), typeNames);
+			}
+			return new RemoteApplicationEventIndex(classLoader, typeNames);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load remote event index from " + INDEX_LOCATION, ex);
+		}
+	}
+
+	private static void read(URL url, Set<String> typeNames) throws IOException {
+		try (InputStream stream = url.openStream();
+				BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (!line.isEmpty() && !line.startsWith("#")) {
+					typeNames.add(line);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find the indexed types in a package or its subpackages.
+	 * @param basePackage the package
+	 * @return the types that could be loaded
+	 */
+	List<Class<?>> getTypes(String basePackage) {
+		String prefix = basePackage + ".";
+		List<Class<?>> types = new ArrayList<>();
+		for (String typeName : this.typeNames) {
+			if (typeName.startsWith(prefix)) {
+				try {
+					types.add(ClassUtils.forName(typeName, this.classLoader));
+				}
+				catch (ClassNotFoundException | LinkageError ex) {
+					// stale entry, e.g. from a jar built against another version
+					if (log.isDebugEnabled()) {
+						log.debug("Skipping indexed remote event type " + typeName + ": " + ex);
+					}
+				}
+			}
+		}
+		return types;
+	}
+
+}
@@ -30,6 +30,10 @@ public class SubtypeModule extends SimpleModule {
 		this.subtypes = subtypes;
 	}
 
+	Class<?>[] getSubtypes() {
+		return this.subtypes;
+	}
+
 	@Override
 	public void setupModule(SetupContext context) {
 		context.registerSubtypes(this.subtypes);
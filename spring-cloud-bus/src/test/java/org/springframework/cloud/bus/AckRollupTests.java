@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent.Outcome;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AckRollupTests {
+
+	private final PathDestinationFactory destinationFactory = new PathDestinationFactory();
+
+	private final List<RemoteApplicationEvent> sent = new CopyOnWriteArrayList<>();
+
+	private AckRollup rollup;
+
+	@After
+	public void close() {
+		if (this.rollup != null) {
+			this.rollup.destroy();
+		}
+	}
+
+	@Test
+	public void rollsUpAcksWithinWindow() throws Exception {
+		this.rollup = rollup(Duration.ofMillis(50), 100);
+		this.rollup.add(ack("one", "monitor"), Outcome.PROCESSED);
+		this.rollup.add(ack("two", "monitor"), Outcome.FAILED);
+		this.rollup.add(ack("three", "monitor"), Outcome.PROCESSED);
+		assertThat(this.sent).isEmpty();
+		awaitSent(1);
+		AckRollupRemoteApplicationEvent message = (AckRollupRemoteApplicationEvent) this.sent.get(0);
+		assertThat(message.getOriginService()).isEqualTo("one:two:8888");
+		assertThat(message.getDestinationService()).isEqualTo("monitor:**");
+		assertThat(message.getAcks()).extracting(AckRollupRemoteApplicationEvent.Entry::getAckId)
+			.containsExactly("one", "two", "three");
+		assertThat(message.toAcks()).extracting(AckRemoteApplicationEvent::getAckId).containsExactly("one", "three");
+	}
+
+	@Test
+	public void rollsUpPerDestination() throws Exception {
+		this.rollup = rollup(Duration.ofMillis(50), 100);
+		this.rollup.add(ack("one", "foo"), Outcome.PROCESSED);
+		this.rollup.add(ack("two", "bar"), Outcome.PROCESSED);
+		this.rollup.add(ack("three", "foo"), Outcome.PROCESSED);
+		awaitSent(2);
+		assertThat(this.sent.get(0)).isInstanceOf(AckRollupRemoteApplicationEvent.class);
+		assertThat(this.sent.get(0).getDestinationService()).isEqualTo("foo:**");
+		// a lone ack needs no rollup
+		assertThat(this.sent.get(1)).isInstanceOf(AckRemoteApplicationEvent.class);
+		assertThat(((AckRemoteApplicationEvent) this.sent.get(1)).getAckId()).isEqualTo("two");
+	}
+
+	@Test
+	public void sendsFullRollupStraightAway() {
+		this.rollup = rollup(Duration.ofMinutes(1), 2);
+		this.rollup.add(ack("one", "monitor"), Outcome.PROCESSED);
+		this.rollup.add(ack("two", "monitor"), Outcome.PROCESSED);
+		assertThat(this.sent).hasSize(1);
+		assertThat(((AckRollupRemoteApplicationEvent) this.sent.get(0)).getAcks()).hasSize(2);
+	}
+
+	@Test
+	public void flushesOnDestroy() {
+		this.rollup = rollup(Duration.ofMinutes(1), 100);
+		this.rollup.add(ack("one", "monitor"), Outcome.PROCESSED);
+		this.rollup.destroy();
+		assertThat(this.sent).hasSize(1);
+		this.rollup = null;
+	}
+
+	private AckRollup rollup(Duration window, int maxSize) {
+		BusProperties.Ack.Rollup properties = new BusProperties.Ack.Rollup();
+		properties.setWindow(window);
+		properties.setMaxSize(maxSize);
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("busBridge", (BusBridge) this.sent::add);
+		return new AckRollup(beanFactory.getBeanProvider(BusBridge.class), "one:two:8888", properties);
+	}
+
+	private AckRemoteApplicationEvent ack(String ackId, String destination) {
+		return new AckRemoteApplicationEvent(this, "one:two:8888", this.destinationFactory.getDestination(destination),
+				"**", ackId, RefreshRemoteApplicationEvent.class);
+	}
+
+	private void awaitSent(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (this.sent.size() < count && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(this.sent).hasSize(count);
+	}
+
+}
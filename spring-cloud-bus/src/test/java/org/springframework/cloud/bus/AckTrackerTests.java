@@ -0,0 +1,150 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import org.junit.Test;
+
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.cloud.bus.event.SentApplicationEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AckTrackerTests {
+
+	private final PathDestinationFactory destinationFactory = new PathDestinationFactory();
+
+	private final AckTracker tracker = new AckTracker(2, Duration.ofMinutes(1));
+
+	@Test
+	public void completesWhenAllExpectedResponded() {
+		RemoteApplicationEvent event = refresh();
+		AckTracker.Record record = this.tracker.track(Collections.singletonList(event),
+				new LinkedHashSet<>(Arrays.asList("a:1", "b:1")), Integer.MAX_VALUE, Duration.ofMinutes(1));
+		this.tracker.acknowledge(ack(event, "a:1"));
+		this.tracker.acknowledge(ack(event, "c:1"));
+		assertThat(record.getFuture()).isNotDone();
+		this.tracker.acknowledge(ack(event, "b:1"));
+		assertThat(record.getFuture()).isCompletedWithValue(record);
+		assertThat(record.isComplete()).isTrue();
+		assertThat(record.getResponses()).containsOnlyKeys("a:1", "c:1", "b:1");
+		assertThat(this.tracker.isTracking()).isFalse();
+	}
+
+	@Test
+	public void completesOnQuorum() {
+		RemoteApplicationEvent event = refresh();
+		AckTracker.Record record = this.tracker.track(Collections.singletonList(event),
+				new LinkedHashSet<>(Arrays.asList("a:1", "b:1", "c:1")), 2, Duration.ofMinutes(1));
+		this.tracker.acknowledge(ack(event, "a:1"));
+		this.tracker.acknowledge(ack(event, "a:1"));
+		assertThat(record.getFuture()).isNotDone();
+		this.tracker.acknowledge(ack(event, "c:1"));
+		assertThat(record.isComplete()).isTrue();
+	}
+
+	@Test
+	public void completesOnTimeout() {
+		RemoteApplicationEvent event = refresh();
+		AckTracker.Record record = this.tracker.track(event, Duration.ofMillis(50));
+		this.tracker.acknowledge(ack(event, "a:1"));
+		assertThat(this.tracker.isTracking()).isTrue();
+		assertThat(record.getFuture().join()).isSameAs(record);
+		assertThat(record.isComplete()).isFalse();
+		assertThat(record.getResponses()).containsOnlyKeys("a:1");
+		assertThat(this.tracker.isTracking()).isFalse();
+	}
+
+	@Test
+	public void evictsOldestRecord() {
+		RemoteApplicationEvent first = refresh();
+		AckTracker.Record record = this.tracker.track(first, Duration.ofMinutes(1));
+		this.tracker.track(refresh(), Duration.ofMinutes(1));
+		assertThat(this.tracker.getRecord(first.getId())).isSameAs(record);
+		this.tracker.track(refresh(), Duration.ofMinutes(1));
+		assertThat(this.tracker.getRecord(first.getId())).isNull();
+		assertThat(record.getFuture()).isDone();
+		assertThat(this.tracker.getRecords()).hasSize(2);
+	}
+
+	@Test
+	public void boundsStoreByRecords() {
+		RemoteApplicationEvent first = refresh();
+		AckTracker.Record record = this.tracker.track(first, Duration.ofMinutes(1));
+		AckTracker.Record batch = this.tracker.track(Arrays.asList(refresh(), refresh(), refresh()),
+				Collections.emptySet(), Integer.MAX_VALUE, Duration.ofMinutes(1));
+		assertThat(this.tracker.getRecord(first.getId())).isSameAs(record);
+		assertThat(batch.getFuture()).isNotDone();
+		assertThat(this.tracker.getRecords()).containsExactly(record, batch);
+	}
+
+	@Test
+	public void keepsRecordLargerThanLimit() {
+		RemoteApplicationEvent first = refresh();
+		AckTracker.Record record = this.tracker.track(first, Duration.ofMinutes(1));
+		RemoteApplicationEvent second = refresh();
+		this.tracker.track(second, Duration.ofMinutes(1));
+		AckTracker.Record batch = this.tracker.track(Arrays.asList(refresh(), refresh(), refresh()),
+				Collections.emptySet(), Integer.MAX_VALUE, Duration.ofMinutes(1));
+		assertThat(this.tracker.getRecord(first.getId())).isNull();
+		assertThat(record.getFuture()).isDone();
+		assertThat(this.tracker.getRecord(second.getId())).isNotNull();
+		assertThat(this.tracker.getRecord(batch.getIds().get(2))).isSameAs(batch);
+		assertThat(batch.getFuture()).isNotDone();
+		assertThat(this.tracker.getRecords()).hasSize(2).endsWith(batch);
+	}
+
+	@Test
+	public void evictsReplacedRecord() {
+		RemoteApplicationEvent event = refresh();
+		AckTracker.Record record = this.tracker.track(event, Duration.ofMinutes(1));
+		AckTracker.Record again = this.tracker.track(event, Duration.ofMinutes(1));
+		assertThat(record.getFuture()).isDone();
+		assertThat(this.tracker.getRecord(event.getId())).isSameAs(again);
+		assertThat(this.tracker.getRecords()).containsExactly(again);
+	}
+
+	@Test
+	public void tracesSentEvents() {
+		RemoteApplicationEvent event = refresh();
+		SentApplicationEvent sent = new SentApplicationEvent(this, event.getOriginService(),
+				event.getDestinationService(), event.getId(), event.getClass());
+		AckTracker.Record record = this.tracker.trace(sent);
+		assertThat(this.tracker.trace(sent)).isSameAs(record);
+		this.tracker.acknowledge(ack(event, "a:1"));
+		assertThat(record.getType()).isEqualTo("RefreshRemoteApplicationEvent");
+		assertThat(record.getOrigin()).isEqualTo("origin:1");
+		assertThat(record.getResponses()).containsOnlyKeys("a:1");
+	}
+
+	private RemoteApplicationEvent refresh() {
+		return new RefreshRemoteApplicationEvent(this, "origin:1", this.destinationFactory.getDestination(null));
+	}
+
+	private AckRemoteApplicationEvent ack(RemoteApplicationEvent event, String origin) {
+		return new AckRemoteApplicationEvent(this, origin, this.destinationFactory.getDestination(null),
+				event.getDestinationService(), event.getId(), event.getClass());
+	}
+
+}
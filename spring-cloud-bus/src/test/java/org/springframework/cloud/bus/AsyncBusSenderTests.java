@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.cloud.bus.BusProperties.Send.OverflowPolicy;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.messaging.MessageDeliveryException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncBusSenderTests {
+
+	private final List<RemoteApplicationEvent> sent = new CopyOnWriteArrayList<>();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final CountDownLatch started = new CountDownLatch(1);
+
+	private AsyncBusSender sender;
+
+	@After
+	public void close() {
+		this.release.countDown();
+		if (this.sender != null) {
+			this.sender.close();
+		}
+	}
+
+	@Test
+	public void sendsOffThePublishingThread() throws Exception {
+		this.sender = new AsyncBusSender((event, context) -> this.sent.add(event), send(OverflowPolicy.BLOCK, 4));
+		RemoteApplicationEvent event = event();
+		this.sender.submit(event).get(5, TimeUnit.SECONDS);
+		assertThat(this.sent).containsExactly(event);
+	}
+
+	@Test
+	public void refusedSendFails() throws Exception {
+		this.sender = new AsyncBusSender((event, context) -> false, send(OverflowPolicy.BLOCK, 4));
+		CompletableFuture<Void> result = this.sender.submit(event());
+		assertThat(result.handle((ignored, ex) -> ex).get(5, TimeUnit.SECONDS))
+			.isInstanceOf(MessageDeliveryException.class);
+	}
+
+	@Test
+	public void failPolicyRejectsWhenFull() throws Exception {
+		this.sender = new AsyncBusSender(this::blockingSend, send(OverflowPolicy.FAIL, 1));
+		this.sender.submit(event());
+		assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+		this.sender.submit(event());
+		CompletableFuture<Void> rejected = this.sender.submit(event());
+		assertThat(rejected).isCompletedExceptionally();
+		assertThat(rejected.handle((result, ex) -> ex).get()).isInstanceOf(RejectedExecutionException.class);
+	}
+
+	@Test
+	public void dropOldestPolicyMakesRoom() throws Exception {
+		this.sender = new AsyncBusSender(this::blockingSend, send(OverflowPolicy.DROP_OLDEST, 1));
+		this.sender.submit(event());
+		assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Void> oldest = this.sender.submit(event());
+		CompletableFuture<Void> newest = this.sender.submit(event());
+		assertThat(oldest).isCompletedExceptionally();
+		this.release.countDown();
+		newest.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void blockPolicyGivesUpWhenClosed() throws Exception {
+		BusProperties.Send properties = send(OverflowPolicy.BLOCK, 1);
+		properties.setShutdownTimeout(Duration.ofMillis(100));
+		this.sender = new AsyncBusSender(this::blockingSend, properties);
+		this.sender.submit(event());
+		assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+		this.sender.submit(event());
+		CompletableFuture<CompletableFuture<Void>> blocked = CompletableFuture
+			.supplyAsync(() -> this.sender.submit(event()));
+		this.sender.close();
+		CompletableFuture<Void> result = blocked.get(5, TimeUnit.SECONDS);
+		assertThat(result.handle((ignored, ex) -> ex).get(5, TimeUnit.SECONDS))
+			.isInstanceOf(RejectedExecutionException.class);
+	}
+
+	private boolean blockingSend(RemoteApplicationEvent event, Object context) {
+		this.started.countDown();
+		try {
+			this.release.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return this.sent.add(event);
+	}
+
+	private BusProperties.Send send(OverflowPolicy policy, int capacity) {
+		BusProperties.Send send = new BusProperties.Send();
+		send.setAsync(true);
+		send.setOverflowPolicy(policy);
+		send.setQueueCapacity(capacity);
+		return send;
+	}
+
+	private RemoteApplicationEvent event() {
+		return new RefreshRemoteApplicationEvent(this, "foo", new PathDestinationFactory().getDestination(null));
+	}
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent.Outcome;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.util.AntPathMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class BusConsumerTests {
+
+	private final PathDestinationFactory destinationFactory = new PathDestinationFactory();
+
+	private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+
+	private BusProperties properties;
+
+	private BusConsumer consumer;
+
+	@Before
+	public void init() {
+		this.properties = new BusProperties();
+		this.properties.setId("one:two:8888");
+		this.consumer = new BusConsumer(this.publisher,
+				new PathServiceMatcher(new DefaultBusPathMatcher(new AntPathMatcher(":")), this.properties.getId()),
+				new StaticListableBeanFactory().getBeanProvider(BusBridge.class), this.properties,
+				this.destinationFactory);
+	}
+
+	@Test
+	public void acksToDestinationServiceByDefault() {
+		this.properties.getAck().setDestinationService("monitor");
+		this.consumer.accept(refreshFromFoo());
+		assertThat(publishedAck().getDestinationService()).isEqualTo("monitor:**");
+	}
+
+	@Test
+	public void acksToOriginInOriginMode() {
+		this.properties.getAck().setMode(BusProperties.Ack.Mode.ORIGIN);
+		this.consumer.accept(refreshFromFoo());
+		assertThat(publishedAck().getDestinationService()).isEqualTo("foo:1:**");
+	}
+
+	@Test
+	public void noAckWhenOff() {
+		this.properties.getAck().setMode(BusProperties.Ack.Mode.OFF);
+		this.consumer.accept(refreshFromFoo());
+		verify(this.publisher, never()).publishEvent(any(AckRemoteApplicationEvent.class));
+	}
+
+	@Test
+	public void ackForOtherServiceIgnored() {
+		this.properties.getTrace().setEnabled(true);
+		this.consumer.accept(ackFromFoo("bar"));
+		verify(this.publisher, never()).publishEvent(any(AckRemoteApplicationEvent.class));
+		this.consumer.accept(ackFromFoo("one"));
+		verify(this.publisher).publishEvent(any(AckRemoteApplicationEvent.class));
+	}
+
+	@Test
+	public void ackRollupExpanded() {
+		this.properties.getTrace().setEnabled(true);
+		List<AckRollupRemoteApplicationEvent.Entry> entries = Arrays.asList(
+				new AckRollupRemoteApplicationEvent.Entry(ackFromFoo("one"), Outcome.PROCESSED),
+				new AckRollupRemoteApplicationEvent.Entry(ackFromFoo("one"), Outcome.FAILED));
+		this.consumer.accept(new AckRollupRemoteApplicationEvent(this, "foo:1",
+				this.destinationFactory.getDestination("one"), entries));
+		AckRemoteApplicationEvent ack = publishedAck();
+		assertThat(ack.getOriginService()).isEqualTo("foo:1");
+		assertThat(ack.getAckId()).isEqualTo("ID");
+		verify(this.publisher).publishEvent(any(AckRemoteApplicationEvent.class));
+	}
+
+	@Test
+	public void receptionsRecorded() {
+		BusMetrics metrics = mock(BusMetrics.class);
+		this.consumer.setMetrics(metrics);
+		this.consumer.accept(refreshFromFoo());
+		this.consumer
+			.accept(new RefreshRemoteApplicationEvent(this, "foo:1", this.destinationFactory.getDestination("bar")));
+		this.consumer.accept(new RefreshRemoteApplicationEvent(this, "one:two:8888",
+				this.destinationFactory.getDestination(null)));
+		verify(metrics).eventReceived("RefreshRemoteApplicationEvent", "**", BusMetrics.Reception.ACCEPTED);
+		verify(metrics).eventReceived("RefreshRemoteApplicationEvent", "bar:**", BusMetrics.Reception.FILTERED);
+		verify(metrics).eventReceived("RefreshRemoteApplicationEvent", "**", BusMetrics.Reception.SELF);
+	}
+
+	@Test
+	public void propagationRecordedFromEnvelope() {
+		BusMetrics metrics = mock(BusMetrics.class);
+		this.consumer.setMetrics(metrics);
+		RefreshRemoteApplicationEvent sent = refreshFromFoo();
+		Map<String, Object> headers = BusEnvelope.getHeaders(sent);
+		long sequence = (Long) headers.get(BusConstants.SEQUENCE_HEADER);
+		assertThat((Long) BusEnvelope.getHeaders(sent).get(BusConstants.SEQUENCE_HEADER)).isGreaterThan(sequence);
+		RefreshRemoteApplicationEvent received = refreshFromFoo();
+		BusEnvelope.stamp(received, headers);
+		assertThat(received.getSendTimestamp()).isEqualTo(headers.get(BusConstants.TIMESTAMP_HEADER));
+		assertThat(received.getSendSequence()).isEqualTo(sequence);
+		this.consumer.accept(received);
+		verify(metrics).eventPropagated(eq("foo:1"), eq("RefreshRemoteApplicationEvent"), any(Duration.class));
+	}
+
+	@Test
+	public void noPropagationWithoutEnvelope() {
+		BusMetrics metrics = mock(BusMetrics.class);
+		this.consumer.setMetrics(metrics);
+		this.consumer.accept(refreshFromFoo());
+		verify(metrics, never()).eventPropagated(any(), any(), any());
+	}
+
+	@Test
+	public void acksRolledUpWhenEnabled() {
+		AckRollup rollup = mock(AckRollup.class);
+		this.consumer.setAckRollup(rollup);
+		this.consumer.accept(refreshFromFoo());
+		verify(rollup).add(any(AckRemoteApplicationEvent.class), eq(Outcome.PROCESSED));
+	}
+
+	@Test
+	public void failureRolledUp() {
+		AckRollup rollup = mock(AckRollup.class);
+		this.consumer.setAckRollup(rollup);
+		willThrow(new IllegalStateException("planned")).given(this.publisher)
+			.publishEvent(any(RefreshRemoteApplicationEvent.class));
+		assertThatIllegalStateException().isThrownBy(() -> this.consumer.accept(refreshFromFoo()));
+		verify(rollup).add(any(AckRemoteApplicationEvent.class), eq(Outcome.FAILED));
+		verify(rollup, never()).add(any(AckRemoteApplicationEvent.class), eq(Outcome.PROCESSED));
+	}
+
+	@Test
+	public void backgroundRefreshAckedWhenDone() {
+		CompletableFuture<String> refresh = new CompletableFuture<>();
+		willAnswer((invocation) -> {
+			invocation.<RefreshRemoteApplicationEvent>getArgument(0).setRefresh(refresh);
+			return null;
+		}).given(this.publisher).publishEvent(any(RefreshRemoteApplicationEvent.class));
+		this.consumer.accept(refreshFromFoo());
+		verify(this.publisher, never()).publishEvent(any(AckRemoteApplicationEvent.class));
+		refresh.complete("other");
+		assertThat(publishedAck().getServedBy()).isEqualTo("other");
+	}
+
+	@Test
+	public void failedBackgroundRefreshRolledUp() {
+		AckRollup rollup = mock(AckRollup.class);
+		this.consumer.setAckRollup(rollup);
+		CompletableFuture<String> refresh = new CompletableFuture<>();
+		willAnswer((invocation) -> {
+			invocation.<RefreshRemoteApplicationEvent>getArgument(0).setRefresh(refresh);
+			return null;
+		}).given(this.publisher).publishEvent(any(RefreshRemoteApplicationEvent.class));
+		this.consumer.accept(refreshFromFoo());
+		verify(rollup, never()).add(any(AckRemoteApplicationEvent.class), any(Outcome.class));
+		refresh.completeExceptionally(new IllegalStateException("planned"));
+		verify(rollup).add(any(AckRemoteApplicationEvent.class), eq(Outcome.FAILED));
+		verify(rollup, never()).add(any(AckRemoteApplicationEvent.class), eq(Outcome.PROCESSED));
+	}
+
+	@Test
+	public void redeliveredEventDropped() {
+		this.consumer.setDeduplicator(new EventDeduplicator(Duration.ofMinutes(1), 10));
+		RefreshRemoteApplicationEvent refresh = refreshFromFoo();
+		this.consumer.accept(refresh);
+		this.consumer.accept(refresh);
+		verify(this.publisher).publishEvent(any(RefreshRemoteApplicationEvent.class));
+	}
+
+	@Test
+	public void failedEventNotDropped() {
+		this.consumer.setDeduplicator(new EventDeduplicator(Duration.ofMinutes(1), 10));
+		willThrow(new IllegalStateException("planned")).given(this.publisher)
+			.publishEvent(any(RefreshRemoteApplicationEvent.class));
+		RefreshRemoteApplicationEvent refresh = refreshFromFoo();
+		assertThatIllegalStateException().isThrownBy(() -> this.consumer.accept(refresh));
+		assertThatIllegalStateException().isThrownBy(() -> this.consumer.accept(refresh));
+	}
+
+	@Test
+	public void sampledShareOfEvents() {
+		int sampled = 0;
+		for (int i = 0; i < 10000; i++) {
+			if (BusConsumer.isSampled("one:two:8888", UUID.randomUUID().toString(), 20)) {
+				sampled++;
+			}
+		}
+		assertThat(sampled).isBetween(1700, 2300);
+		String eventId = UUID.randomUUID().toString();
+		assertThat(BusConsumer.isSampled("one:two:8888", eventId, 20))
+			.isEqualTo(BusConsumer.isSampled("one:two:8888", eventId, 20));
+		assertThat(BusConsumer.isSampled("one:two:8888", eventId, 100)).isTrue();
+		assertThat(BusConsumer.isSampled("one:two:8888", eventId, 0)).isFalse();
+	}
+
+	private RefreshRemoteApplicationEvent refreshFromFoo() {
+		return new RefreshRemoteApplicationEvent(this, "foo:1", this.destinationFactory.getDestination(null));
+	}
+
+	private AckRemoteApplicationEvent ackFromFoo(String destination) {
+		return new AckRemoteApplicationEvent(this, "foo:1", this.destinationFactory.getDestination(destination), "**",
+				"ID", RefreshRemoteApplicationEvent.class);
+	}
+
+	private AckRemoteApplicationEvent publishedAck() {
+		ArgumentCaptor<AckRemoteApplicationEvent> captor = ArgumentCaptor.forClass(AckRemoteApplicationEvent.class);
+		verify(this.publisher, atLeastOnce()).publishEvent(captor.capture());
+		return captor.getValue();
+	}
+
+}
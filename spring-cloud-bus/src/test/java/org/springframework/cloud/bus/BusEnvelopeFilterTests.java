@@ -0,0 +1,132 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.util.AntPathMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BusEnvelopeFilterTests {
+
+	private final PathDestinationFactory destinationFactory = new PathDestinationFactory();
+
+	private BusProperties properties;
+
+	private BusEnvelopeFilter filter;
+
+	@Before
+	public void init() {
+		this.properties = new BusProperties();
+		this.properties.setId("one:two:8888");
+		this.filter = new BusEnvelopeFilter(
+				new PathServiceMatcher(new DefaultBusPathMatcher(new AntPathMatcher(":")), this.properties.getId()),
+				this.properties);
+	}
+
+	@Test
+	public void noEnvelopeNotDiscarded() {
+		assertThat(this.filter.shouldDiscard(Collections.emptyMap())).isFalse();
+	}
+
+	@Test
+	public void forSelfNotDiscarded() {
+		assertThat(this.filter.shouldDiscard(headers(refresh("foo:bar:spam", "one")))).isFalse();
+	}
+
+	@Test
+	public void notForSelfDiscarded() {
+		assertThat(this.filter.shouldDiscard(headers(refresh("foo:bar:spam", "three")))).isTrue();
+	}
+
+	@Test
+	public void fromSelfKeptForAck() {
+		assertThat(this.filter.shouldDiscard(headers(refresh("one:two:8888", null)))).isFalse();
+	}
+
+	@Test
+	public void fromSelfDiscardedWithoutAck() {
+		this.properties.getAck().setEnabled(false);
+		assertThat(this.filter.shouldDiscard(headers(refresh("one:two:8888", null)))).isTrue();
+	}
+
+	@Test
+	public void notForSelfKeptWithTrace() {
+		this.properties.getTrace().setEnabled(true);
+		assertThat(this.filter.shouldDiscard(headers(refresh("foo:bar:spam", "three")))).isFalse();
+	}
+
+	@Test
+	public void ackDiscardedWithoutTrace() {
+		assertThat(this.filter.shouldDiscard(headers(ack("foo:bar:spam")))).isTrue();
+	}
+
+	@Test
+	public void ackKeptWithTrace() {
+		this.properties.getTrace().setEnabled(true);
+		assertThat(this.filter.shouldDiscard(headers(ack("foo:bar:spam")))).isFalse();
+		assertThat(this.filter.shouldDiscard(headers(ack("one:two:8888")))).isTrue();
+	}
+
+	@Test
+	public void ackForOtherServiceDiscarded() {
+		this.properties.getTrace().setEnabled(true);
+		RemoteApplicationEvent ack = new AckRemoteApplicationEvent(this, "foo:bar:spam",
+				this.destinationFactory.getDestination("foo:bar:spam"), "**", "ID", RefreshRemoteApplicationEvent.class);
+		assertThat(this.filter.shouldDiscard(headers(ack))).isTrue();
+	}
+
+	@Test
+	public void ackKeptWhileTracking() {
+		AckTracker ackTracker = new AckTracker();
+		this.filter = new BusEnvelopeFilter(
+				new PathServiceMatcher(new DefaultBusPathMatcher(new AntPathMatcher(":")), this.properties.getId()),
+				this.properties, ackTracker);
+		assertThat(this.filter.shouldDiscard(headers(ack("foo:bar:spam")))).isTrue();
+		RemoteApplicationEvent refresh = refresh("one:two:8888", "foo");
+		ackTracker.track(Collections.singletonList(refresh), Collections.singleton("foo:bar:spam"), 1,
+				Duration.ofMinutes(1));
+		assertThat(this.filter.shouldDiscard(headers(ack("foo:bar:spam")))).isFalse();
+		ackTracker.acknowledge(new AckRemoteApplicationEvent(this, "foo:bar:spam",
+				this.destinationFactory.getDestination(null), null, refresh.getId(), refresh.getClass()));
+		assertThat(this.filter.shouldDiscard(headers(ack("foo:bar:spam")))).isTrue();
+	}
+
+	private RemoteApplicationEvent refresh(String origin, String destination) {
+		return new RefreshRemoteApplicationEvent(this, origin, this.destinationFactory.getDestination(destination));
+	}
+
+	private RemoteApplicationEvent ack(String origin) {
+		return new AckRemoteApplicationEvent(this, origin, this.destinationFactory.getDestination(null), "**", "ID",
+				RefreshRemoteApplicationEvent.class);
+	}
+
+	private Map<String, Object> headers(RemoteApplicationEvent event) {
+		return BusEnvelope.getHeaders(event);
+	}
+
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Load-test harness: a fleet of bus nodes in one JVM, each with its own
+ * {@link BusProperties}, {@link PathServiceMatcher}, {@link BusConsumer} and
+ * {@link AckTracker}, connected by an in-memory broker that delivers every message to
+ * every node (the same event instance, without serialization). Each node processes its
+ * messages one at a time, in order, on a shared thread pool.
+ */
+class BusFleet implements AutoCloseable {
+
+	private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final List<Node> nodes = new ArrayList<>();
+
+	private final ExecutorService executor;
+
+	private final Map<String, Long> sendTimes = new ConcurrentHashMap<>();
+
+	private final AtomicLong inFlight = new AtomicLong();
+
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * Create a fleet with node ids {@code service<i % services>:<8000 + i>}.
+	 * @param size the number of nodes
+	 * @param services the number of distinct services the nodes belong to
+	 * @param customizer applied to the properties of every node, e.g. to set the ack mode
+	 */
+	BusFleet(int size, int services, Consumer<BusProperties> customizer) {
+		this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		for (int i = 0; i < size; i++) {
+			BusProperties properties = new BusProperties();
+			properties.setId("service" + (i % services) + ":" + (8000 + i));
+			customizer.accept(properties);
+			this.nodes.add(new Node(properties));
+		}
+	}
+
+	List<Node> getNodes() {
+		return Collections.unmodifiableList(this.nodes);
+	}
+
+	/**
+	 * Send events from the first node at a steady rate and wait for the fleet to process
+	 * them and their acks.
+	 * @param events the number of events to send
+	 * @param ratePerSecond the number of events to send per second
+	 * @param factory creates an event sent by the given node
+	 * @param timeout how long to wait for the fleet to go quiet after the last send
+	 * @return the report of the run
+	 */
+	Report run(int events, double ratePerSecond, Function<Node, RemoteApplicationEvent> factory, Duration timeout) {
+		Node origin = this.nodes.get(0);
+		List<AckTracker.Record> records = new ArrayList<>();
+		long interval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+		long start = System.nanoTime();
+		for (int i = 0; i < events; i++) {
+			long due = start + i * interval;
+			long wait = due - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			RemoteApplicationEvent event = factory.apply(origin);
+			Set<String> expected = new LinkedHashSet<>();
+			for (Node node : this.nodes) {
+				if (node.matcher.isForSelf(event)) {
+					expected.add(node.getId());
+				}
+			}
+			records.add(origin.tracker.track(Collections.singletonList(event), expected, Integer.MAX_VALUE, timeout));
+			this.sendTimes.put(event.getId(), System.nanoTime());
+			origin.send(event);
+		}
+		boolean quiet = awaitQuiet(timeout);
+		long elapsed = System.nanoTime() - start;
+		return new Report(this.nodes, events, elapsed, records, quiet, this.failures.get());
+	}
+
+	private boolean awaitQuiet(Duration timeout) {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		while (this.inFlight.get() > 0) {
+			if (System.nanoTime() > deadline) {
+				return false;
+			}
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		return true;
+	}
+
+	private void broadcast(RemoteApplicationEvent event) {
+		for (Node node : this.nodes) {
+			node.deliver(event);
+		}
+	}
+
+	@Override
+	public void close() {
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * One instance on the bus, which is also its own outbound {@link BusBridge}.
+	 */
+	final class Node implements BusBridge {
+
+		private final BusProperties properties;
+
+		private final PathServiceMatcher matcher;
+
+		private final AckTracker tracker = new AckTracker(100_000, Duration.ofMinutes(1));
+
+		private final BusConsumer consumer;
+
+		private final Queue<RemoteApplicationEvent> queue = new ConcurrentLinkedQueue<>();
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		// only touched while draining, which is serial
+		private long[] latencies = new long[64];
+
+		private int latencyCount;
+
+		private long cpuNanos;
+
+		private long allocatedBytes;
+
+		private long processed;
+
+		private Node(BusProperties properties) {
+			this.properties = properties;
+			this.matcher = new PathServiceMatcher(new DefaultBusPathMatcher(new AntPathMatcher(":")),
+					properties.getId());
+			StaticListableBeanFactory beans = new StaticListableBeanFactory();
+			beans.addBean("busBridge", this);
+			this.consumer = new BusConsumer(this::onLocalEvent, this.matcher, beans.getBeanProvider(BusBridge.class),
+					properties, new PathDestinationFactory(), this.tracker);
+		}
+
+		String getId() {
+			return this.properties.getId();
+		}
+
+		@Override
+		public void send(RemoteApplicationEvent event) {
+			broadcast(event);
+		}
+
+		private void onLocalEvent(Object event) {
+			if (!(event instanceof RemoteApplicationEvent) || event instanceof AckRemoteApplicationEvent) {
+				return;
+			}
+			Long sent = BusFleet.this.sendTimes.get(((RemoteApplicationEvent) event).getId());
+			if (sent != null) {
+				if (this.latencyCount == this.latencies.length) {
+					this.latencies = Arrays.copyOf(this.latencies, this.latencyCount * 2);
+				}
+				this.latencies[this.latencyCount++] = System.nanoTime() - sent;
+			}
+		}
+
+		private void deliver(RemoteApplicationEvent event) {
+			BusFleet.this.inFlight.incrementAndGet();
+			this.queue.add(event);
+			schedule();
+		}
+
+		private void schedule() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				BusFleet.this.executor.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			RemoteApplicationEvent event;
+			while ((event = this.queue.poll()) != null) {
+				long cpu = threads.getCurrentThreadCpuTime();
+				long allocated = allocatedBytes();
+				try {
+					this.consumer.accept(event);
+				}
+				catch (RuntimeException ex) {
+					BusFleet.this.failures.incrementAndGet();
+				}
+				this.processed++;
+				this.cpuNanos += threads.getCurrentThreadCpuTime() - cpu;
+				this.allocatedBytes += allocatedBytes() - allocated;
+				// publishes the counts above to the thread that waits for the fleet to go quiet
+				BusFleet.this.inFlight.decrementAndGet();
+			}
+			this.scheduled.set(false);
+			if (!this.queue.isEmpty()) {
+				// delivered after the last poll but before the flag was cleared
+				schedule();
+			}
+		}
+
+		private long allocatedBytes() {
+			if (threads instanceof com.sun.management.ThreadMXBean) {
+				return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+			}
+			return 0;
+		}
+
+	}
+
+	/**
+	 * The outcome of a run.
+	 */
+	static final class Report {
+
+		private final int nodes;
+
+		private final int events;
+
+		private final long deliveries;
+
+		private final long elapsedNanos;
+
+		private final long[] latencies;
+
+		private final double ackCompleteness;
+
+		private final long maxCpuNanos;
+
+		private final long totalCpuNanos;
+
+		private final long maxAllocatedBytes;
+
+		private final long totalAllocatedBytes;
+
+		private final boolean quiet;
+
+		private final long failures;
+
+		private Report(List<Node> nodes, int events, long elapsedNanos, List<AckTracker.Record> records, boolean quiet,
+				long failures) {
+			this.nodes = nodes.size();
+			this.events = events;
+			this.elapsedNanos = elapsedNanos;
+			this.quiet = quiet;
+			this.failures = failures;
+			long deliveries = 0;
+			int latencyCount = 0;
+			long maxCpu = 0;
+			long totalCpu = 0;
+			long maxAllocated = 0;
+			long totalAllocated = 0;
+			for (Node node : nodes) {
+				deliveries += node.processed;
+				latencyCount += node.latencyCount;
+				maxCpu = Math.max(maxCpu, node.cpuNanos);
+				totalCpu += node.cpuNanos;
+				maxAllocated = Math.max(maxAllocated, node.allocatedBytes);
+				totalAllocated += node.allocatedBytes;
+			}
+			this.deliveries = deliveries;
+			this.maxCpuNanos = maxCpu;
+			this.totalCpuNanos = totalCpu;
+			this.maxAllocatedBytes = maxAllocated;
+			this.totalAllocatedBytes = totalAllocated;
+			this.latencies = new long[latencyCount];
+			int index = 0;
+			for (Node node : nodes) {
+				System.arraycopy(node.latencies, 0, this.latencies, index, node.latencyCount);
+				index += node.latencyCount;
+			}
+			Arrays.sort(this.latencies);
+			long expected = 0;
+			long acked = 0;
+			for (AckTracker.Record record : records) {
+				expected += record.getExpected().size();
+				for (String service : record.getResponses().keySet()) {
+					if (record.getExpected().contains(service)) {
+						acked++;
+					}
+				}
+			}
+			this.ackCompleteness = (expected > 0) ? (double) acked / expected : 1.0;
+		}
+
+		/**
+		 * @return the number of events delivered to local listeners, over all nodes
+		 */
+		int getAccepted() {
+			return this.latencies.length;
+		}
+
+		/**
+		 * @return the number of messages (events and acks) processed, over all nodes
+		 */
+		long getDeliveries() {
+			return this.deliveries;
+		}
+
+		/**
+		 * @return messages processed per second, over all nodes
+		 */
+		double getThroughput() {
+			return this.deliveries * 1e9 / this.elapsedNanos;
+		}
+
+		/**
+		 * @param percentile between 0 and 100
+		 * @return the time from sending an event to a node delivering it locally
+		 */
+		Duration getLatency(double percentile) {
+			if (this.latencies.length == 0) {
+				return Duration.ZERO;
+			}
+			int index = (int) Math.ceil(percentile / 100 * this.latencies.length) - 1;
+			return Duration.ofNanos(this.latencies[Math.max(0, Math.min(index, this.latencies.length - 1))]);
+		}
+
+		/**
+		 * @return the share of the expected acks that arrived at the origin
+		 */
+		double getAckCompleteness() {
+			return this.ackCompleteness;
+		}
+
+		/**
+		 * @return whether every message was processed before the timeout
+		 */
+		boolean isQuiet() {
+			return this.quiet;
+		}
+
+		long getFailures() {
+			return this.failures;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"%d nodes, %d events: %d messages in %d ms (%.0f/s), %s failures%n"
+							+ "  latency p50=%s p90=%s p99=%s max=%s%n" + "  acks %.1f%% complete%n"
+							+ "  cpu per node mean=%.2f ms max=%.2f ms, allocated per node mean=%d KB max=%d KB",
+					this.nodes, this.events, this.deliveries, TimeUnit.NANOSECONDS.toMillis(this.elapsedNanos),
+					getThroughput(), this.failures, getLatency(50), getLatency(90), getLatency(99), getLatency(100),
+					this.ackCompleteness * 100, this.totalCpuNanos / 1e6 / this.nodes, this.maxCpuNanos / 1e6,
+					this.totalAllocatedBytes / 1024 / this.nodes, this.maxAllocatedBytes / 1024);
+		}
+
+	}
+
+}
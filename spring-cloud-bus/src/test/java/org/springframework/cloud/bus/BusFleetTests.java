@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+
+import org.springframework.cloud.bus.event.EnvironmentChangeRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.PingRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs of the {@link BusFleet} harness. The large run only happens with
+ * {@code -Dbus.fleet.size=<nodes>}, e.g. {@code -Dbus.fleet.size=1000}.
+ */
+public class BusFleetTests {
+
+	private static final Log log = LogFactory.getLog(BusFleetTests.class);
+
+	private final PathDestinationFactory destinations = new PathDestinationFactory();
+
+	@Test
+	public void broadcastReachesEveryNode() {
+		try (BusFleet fleet = new BusFleet(20, 4, properties -> {
+		})) {
+			BusFleet.Report report = fleet.run(10, 1000, node -> new RefreshRemoteApplicationEvent(this,
+					node.getId(), this.destinations.getDestination(null)), Duration.ofSeconds(30));
+			log.info(report);
+			assertThat(report.isQuiet()).isTrue();
+			assertThat(report.getFailures()).isZero();
+			// every node but the origin
+			assertThat(report.getAccepted()).isEqualTo(10 * 19);
+			assertThat(report.getAckCompleteness()).isEqualTo(1.0);
+		}
+	}
+
+	@Test
+	public void addressedEventReachesOneService() {
+		try (BusFleet fleet = new BusFleet(20, 4, properties -> properties.getAck()
+			.setMode(BusProperties.Ack.Mode.ORIGIN))) {
+			BusFleet.Report report = fleet.run(10, 1000,
+					node -> new EnvironmentChangeRemoteApplicationEvent(this, node.getId(),
+							this.destinations.getDestination("service1"), Collections.singletonMap("foo", "bar")),
+					Duration.ofSeconds(30));
+			assertThat(report.isQuiet()).isTrue();
+			assertThat(report.getAccepted()).isEqualTo(10 * 5);
+			assertThat(report.getAckCompleteness()).isEqualTo(1.0);
+		}
+	}
+
+	@Test
+	public void sampledAcksIncomplete() {
+		try (BusFleet fleet = new BusFleet(50, 1, properties -> {
+			properties.getAck().setMode(BusProperties.Ack.Mode.SAMPLED);
+			properties.getAck().setSamplePercentage(10);
+		})) {
+			BusFleet.Report report = fleet.run(10, 1000, node -> new PingRemoteApplicationEvent(this, node.getId(),
+					this.destinations.getDestination(null)), Duration.ofSeconds(30));
+			assertThat(report.isQuiet()).isTrue();
+			assertThat(report.getAckCompleteness()).isLessThan(0.5);
+		}
+	}
+
+	@Test
+	public void largeFleet() {
+		int size = Integer.getInteger("bus.fleet.size", 0);
+		assumeTrue(size > 0);
+		int events = Integer.getInteger("bus.fleet.events", 100);
+		double rate = Double.parseDouble(System.getProperty("bus.fleet.rate", "10"));
+		try (BusFleet fleet = new BusFleet(size, Math.max(1, size / 10), properties -> properties.getAck()
+			.setMode(BusProperties.Ack.Mode.ORIGIN))) {
+			BusFleet.Report report = fleet.run(events, rate, node -> new RefreshRemoteApplicationEvent(this,
+					node.getId(), this.destinations.getDestination(null)), Duration.ofMinutes(5));
+			log.info(report);
+			assertThat(report.isQuiet()).isTrue();
+		}
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import org.junit.Test;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.cloud.bus.event.CoalescingRefresher;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BusRefreshAutoConfigurationTests {
+
+	private final ApplicationContextRunner runner = new ApplicationContextRunner()
+		.withConfiguration(AutoConfigurations.of(RefreshAutoConfiguration.class,
+				PathServiceMatcherAutoConfiguration.class, BusRefreshAutoConfiguration.class))
+		.withUserConfiguration(PropertiesConfiguration.class);
+
+	@Test
+	public void refreshesInForegroundByDefault() {
+		this.runner.run(context -> assertThat(context).doesNotHaveBean(CoalescingRefresher.class));
+	}
+
+	@Test
+	public void refreshesInBackgroundWithDelayWindow() {
+		this.runner.withPropertyValues("spring.cloud.bus.refresh.delay-window=5s")
+			.run(context -> assertThat(context).hasSingleBean(CoalescingRefresher.class));
+	}
+
+	@Test
+	public void refreshesInForegroundWithZeroDelayWindow() {
+		this.runner.withPropertyValues("spring.cloud.bus.refresh.delay-window=0s")
+			.run(context -> assertThat(context).doesNotHaveBean(CoalescingRefresher.class));
+	}
+
+	@Test
+	public void refreshesInBackgroundWithCoalesce() {
+		this.runner.withPropertyValues("spring.cloud.bus.refresh.coalesce=true")
+			.run(context -> assertThat(context).hasSingleBean(CoalescingRefresher.class));
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableConfigurationProperties(BusProperties.class)
+	static class PropertiesConfiguration {
+
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import org.springframework.cloud.bus.event.EventId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventDeduplicatorTests {
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	@Test
+	public void dropsDuplicateWithinWindow() {
+		EventDeduplicator deduplicator = deduplicator(Duration.ofMinutes(1), 10);
+		String id = UUID.randomUUID().toString();
+		assertThat(deduplicator.register(id)).isTrue();
+		assertThat(deduplicator.register(id)).isFalse();
+		assertThat(deduplicator.register(id.toUpperCase())).isFalse();
+		assertThat(deduplicator.getDuplicates()).isEqualTo(2);
+	}
+
+	@Test
+	public void acceptsAgainAfterWindow() {
+		EventDeduplicator deduplicator = deduplicator(Duration.ofSeconds(10), 10);
+		String id = UUID.randomUUID().toString();
+		assertThat(deduplicator.register(id)).isTrue();
+		this.nanoTime.addAndGet(Duration.ofSeconds(11).toNanos());
+		assertThat(deduplicator.register(id)).isTrue();
+		assertThat(deduplicator.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void forgetsOldestBeyondMaxSize() {
+		EventDeduplicator deduplicator = deduplicator(Duration.ofMinutes(1), 2);
+		String first = UUID.randomUUID().toString();
+		deduplicator.register(first);
+		deduplicator.register(UUID.randomUUID().toString());
+		deduplicator.register(UUID.randomUUID().toString());
+		assertThat(deduplicator.size()).isEqualTo(2);
+		assertThat(deduplicator.register(first)).isTrue();
+	}
+
+	@Test
+	public void forgetsOnRequest() {
+		EventDeduplicator deduplicator = deduplicator(Duration.ofMinutes(1), 10);
+		deduplicator.register("not-a-uuid");
+		assertThat(deduplicator.register("not-a-uuid")).isFalse();
+		deduplicator.forget("not-a-uuid");
+		assertThat(deduplicator.register("not-a-uuid")).isTrue();
+	}
+
+	@Test
+	public void parsedIdsMatchTheirStringForm() {
+		EventDeduplicator deduplicator = deduplicator(Duration.ofMinutes(1), 10);
+		String id = UUID.randomUUID().toString();
+		EventId eventId = EventId.parse(id);
+		assertThat(deduplicator.register(eventId)).isTrue();
+		assertThat(deduplicator.register(id)).isFalse();
+		assertThat(deduplicator.register(eventId)).isFalse();
+		deduplicator.forget(eventId);
+		assertThat(deduplicator.register(id)).isTrue();
+	}
+
+	private EventDeduplicator deduplicator(Duration window, int maxSize) {
+		return new EventDeduplicator(window, maxSize, this.nanoTime::get);
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MicrometerBusMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	public void nothingRecordedUntilBound() {
+		MicrometerBusMetrics metrics = new MicrometerBusMetrics();
+		metrics.unknownEvent("Foo");
+		metrics.bindTo(this.registry);
+		assertThat(this.registry.find("spring.cloud.bus.events.unknown").counter()).isNull();
+		metrics.unknownEvent("Foo");
+		assertThat(this.registry.get("spring.cloud.bus.events.unknown").tag("type", "Foo").counter().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	public void sendTaggedWithTypeAndService() {
+		MicrometerBusMetrics metrics = new MicrometerBusMetrics();
+		metrics.bindTo(this.registry);
+		metrics.eventSent(new RefreshRemoteApplicationEvent(this, "foo:1",
+				new PathDestinationFactory().getDestination("customers:9000:abc")), 1000, true);
+		metrics.eventSent(new RefreshRemoteApplicationEvent(this, "foo:1",
+				new PathDestinationFactory().getDestination(null)), 1000, false);
+		assertThat(this.registry.get("spring.cloud.bus.events.sent")
+			.tags("type", "RefreshRemoteApplicationEvent", "destination", "customers", "outcome", "success")
+			.timer()
+			.count()).isEqualTo(1);
+		assertThat(this.registry.get("spring.cloud.bus.events.sent")
+			.tags("destination", "**", "outcome", "failure")
+			.timer()
+			.count()).isEqualTo(1);
+	}
+
+	@Test
+	public void receptionsCounted() {
+		MicrometerBusMetrics metrics = new MicrometerBusMetrics();
+		metrics.bindTo(this.registry);
+		metrics.eventReceived("Foo", "customers:**", BusMetrics.Reception.FILTERED);
+		metrics.eventReceived("Foo", "customers:**", BusMetrics.Reception.FILTERED);
+		metrics.eventReceived("Foo", "**", BusMetrics.Reception.SELF);
+		assertThat(this.registry.get("spring.cloud.bus.events.received").tag("outcome", "filtered").counter().count())
+			.isEqualTo(2);
+		assertThat(this.registry.get("spring.cloud.bus.events.received").tag("outcome", "self").counter().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	public void readsAcksAndRefreshesTimed() {
+		MicrometerBusMetrics metrics = new MicrometerBusMetrics();
+		metrics.bindTo(this.registry);
+		metrics.eventRead("Foo", 120, 5000);
+		metrics.ackReceived("Foo", Duration.ofMillis(20));
+		metrics.refreshed(TimeUnit.MILLISECONDS.toNanos(300), true);
+		assertThat(this.registry.get("spring.cloud.bus.events.read").timer().count()).isEqualTo(1);
+		assertThat(this.registry.get("spring.cloud.bus.events.payload").summary().totalAmount()).isEqualTo(120);
+		assertThat(this.registry.get("spring.cloud.bus.acks.round.trip").timer().totalTime(TimeUnit.MILLISECONDS))
+			.isEqualTo(20);
+		assertThat(this.registry.get("spring.cloud.bus.refresh").tag("outcome", "success").timer().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	public void propagationTaggedWithOriginService() {
+		MicrometerBusMetrics metrics = new MicrometerBusMetrics();
+		metrics.bindTo(this.registry);
+		metrics.eventPropagated("customers:9000:abc", "Foo", Duration.ofMillis(15));
+		assertThat(this.registry.get("spring.cloud.bus.events.propagation")
+			.tags("type", "Foo", "origin", "customers")
+			.timer()
+			.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(15);
+	}
+
+	@Test
+	public void tagValuesBounded() {
+		MicrometerBusMetrics metrics = new MicrometerBusMetrics(2);
+		metrics.bindTo(this.registry);
+		metrics.unknownEvent("A");
+		metrics.unknownEvent("B");
+		metrics.unknownEvent("C");
+		metrics.unknownEvent("A");
+		assertThat(this.registry.get("spring.cloud.bus.events.unknown").tag("type", "A").counter().count())
+			.isEqualTo(2);
+		assertThat(this.registry.get("spring.cloud.bus.events.unknown")
+			.tag("type", MicrometerBusMetrics.OTHER)
+			.counter()
+			.count()).isEqualTo(1);
+	}
+
+}
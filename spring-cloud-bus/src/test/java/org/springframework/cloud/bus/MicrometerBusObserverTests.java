@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class MicrometerBusObserverTests {
+
+	private final ObservationRegistry registry = ObservationRegistry.create();
+
+	private final PropagatingHandler handler = new PropagatingHandler();
+
+	private final MicrometerBusObserver observer = new MicrometerBusObserver(this.registry);
+
+	@Before
+	public void init() {
+		this.registry.observationConfig().observationHandler(this.handler);
+	}
+
+	@Test
+	public void sendInjectsContextIntoHeaders() {
+		RefreshRemoteApplicationEvent event = refresh();
+		Map<String, Object> headers = new HashMap<>();
+		Boolean sent = this.observer.observeSend(event, headers, () -> headers.containsKey("traceparent"));
+		assertThat(sent).isTrue();
+		assertThat(this.handler.stopped).extracting(Observation.Context::getName)
+			.containsExactly(MicrometerBusObserver.SEND_OBSERVATION);
+		assertThat(this.handler.stopped.get(0).getContextualName()).isEqualTo("RefreshRemoteApplicationEvent send");
+		assertThat(this.handler.stopped.get(0).getLowCardinalityKeyValue("bus.event.type").getValue())
+			.isEqualTo("RefreshRemoteApplicationEvent");
+	}
+
+	@Test
+	public void sendOnAnotherThreadIsChildOfCaller() throws Exception {
+		Observation caller = Observation.start("caller", this.registry);
+		Object context;
+		try (Observation.Scope scope = caller.openScope()) {
+			context = this.observer.captureSendContext();
+		}
+		Thread sender = new Thread(() -> this.observer.observeSend(refresh(), new HashMap<>(), context, () -> true));
+		sender.start();
+		sender.join();
+		caller.stop();
+		assertThat(context).isSameAs(caller);
+		assertThat(this.handler.stopped.get(0).getName()).isEqualTo(MicrometerBusObserver.SEND_OBSERVATION);
+		assertThat(this.handler.stopped.get(0).getParentObservation()).isSameAs(caller);
+	}
+
+	@Test
+	public void receiveContinuesContextFromEnvelope() {
+		RefreshRemoteApplicationEvent event = refresh();
+		Map<String, Object> headers = BusEnvelope.getHeaders(event);
+		headers.put("traceparent", "00-abc-def-01");
+		BusEnvelope.stamp(event, headers);
+		List<String> seen = new ArrayList<>();
+		this.observer.observeReceive(event, () -> seen.add(this.handler.received));
+		assertThat(seen).containsExactly("00-abc-def-01");
+		assertThat(this.handler.stopped).extracting(Observation.Context::getName)
+			.containsExactly(MicrometerBusObserver.RECEIVE_OBSERVATION);
+	}
+
+	@Test
+	public void receiveFailureRecorded() {
+		assertThatIllegalStateException().isThrownBy(() -> this.observer.observeReceive(refresh(), () -> {
+			throw new IllegalStateException("expected");
+		}));
+		assertThat(this.handler.stopped.get(0).getError()).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void noopRegistryRunsCallbacks() {
+		MicrometerBusObserver observer = new MicrometerBusObserver(ObservationRegistry.NOOP);
+		assertThat(observer.observeSend(refresh(), new HashMap<>(), () -> "sent")).isEqualTo("sent");
+	}
+
+	private RefreshRemoteApplicationEvent refresh() {
+		return new RefreshRemoteApplicationEvent(this, "foo:1", new PathDestinationFactory().getDestination(null));
+	}
+
+	/**
+	 * Stands in for a tracing handler.
+	 */
+	static class PropagatingHandler implements ObservationHandler<Observation.Context> {
+
+		private final List<Observation.Context> stopped = new ArrayList<>();
+
+		private String received;
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void onStart(Observation.Context context) {
+			if (context instanceof SenderContext) {
+				SenderContext<Object> sender = (SenderContext<Object>) context;
+				sender.getSetter().set(sender.getCarrier(), "traceparent", "00-abc-def-01");
+			}
+			else if (context instanceof ReceiverContext) {
+				ReceiverContext<Object> receiver = (ReceiverContext<Object>) context;
+				this.received = receiver.getGetter().get(receiver.getCarrier(), "traceparent");
+			}
+		}
+
+		@Override
+		public void onStop(Observation.Context context) {
+			this.stopped.add(context);
+		}
+
+		@Override
+		public boolean supportsContext(Observation.Context context) {
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.MessageDeliveryException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class StreamBusBridgeTests {
+
+	private final StreamBridge streamBridge = mock(StreamBridge.class);
+
+	private final BusProperties properties = new BusProperties();
+
+	@Test
+	public void sentSendCompletes() throws Exception {
+		given(this.streamBridge.send(eq(BusConstants.OUTPUT), any(Object.class))).willReturn(true);
+		StreamBusBridge bridge = new StreamBusBridge(this.streamBridge, this.properties);
+		bridge.sendAsync(event()).get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void refusedSendFails() throws Exception {
+		StreamBusBridge bridge = new StreamBusBridge(this.streamBridge, this.properties);
+		assertRefused(bridge.sendAsync(event()));
+	}
+
+	@Test
+	public void refusedAsyncSendFails() throws Exception {
+		this.properties.getSend().setAsync(true);
+		StreamBusBridge bridge = new StreamBusBridge(this.streamBridge, this.properties);
+		try {
+			assertRefused(bridge.sendAsync(event()));
+		}
+		finally {
+			bridge.destroy();
+		}
+	}
+
+	private void assertRefused(CompletableFuture<Void> result) throws Exception {
+		assertThat(result.handle((ignored, ex) -> ex).get(5, TimeUnit.SECONDS))
+			.isInstanceOf(MessageDeliveryException.class);
+	}
+
+	private RemoteApplicationEvent event() {
+		return new RefreshRemoteApplicationEvent(this, "foo", new PathDestinationFactory().getDestination(null));
+	}
+
+}
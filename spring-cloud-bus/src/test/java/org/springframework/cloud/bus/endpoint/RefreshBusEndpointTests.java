@@ -16,9 +16,16 @@
 
 package org.springframework.cloud.bus.endpoint;
 
+import java.time.Duration;
+
 import org.junit.Test;
 
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.cloud.bus.AckTracker;
+import org.springframework.cloud.bus.BusProperties;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * @author Dave Syer
@@ -32,4 +39,37 @@ public class RefreshBusEndpointTests {
 		assertThat(endpoint.getInstanceId()).isEqualTo("foo");
 	}
 
+	@Test
+	public void awaitsAcks() {
+		RefreshBusEndpoint endpoint = new RefreshBusEndpoint(event -> {
+		}, "foo", original -> () -> original);
+		endpoint.setAckTracker(new AckTracker(16, Duration.ofSeconds(1)));
+		Object record = endpoint.busRefresh(null, Duration.ofMillis(50));
+		assertThat(record).isInstanceOfSatisfying(AckTracker.Record.class,
+				(tracked) -> assertThat(tracked.getFuture()).isDone());
+	}
+
+	@Test
+	public void awaitLongerThanTrackingTimeoutRejected() {
+		RefreshBusEndpoint endpoint = new RefreshBusEndpoint(event -> {
+		}, "foo", original -> () -> original);
+		endpoint.setAckTracker(new AckTracker(16, Duration.ofSeconds(1)));
+		assertThatExceptionOfType(InvalidEndpointRequestException.class)
+			.isThrownBy(() -> endpoint.busRefresh(null, Duration.ofMinutes(1)));
+		assertThatExceptionOfType(InvalidEndpointRequestException.class)
+			.isThrownBy(() -> endpoint.busRefresh(null, Duration.ofSeconds(-1)));
+	}
+
+	@Test
+	public void rollingRefreshRejectedWithSampledAcks() {
+		BusProperties bus = new BusProperties();
+		bus.getAck().setMode(BusProperties.Ack.Mode.SAMPLED);
+		RollingRefresh rollingRefresh = new RollingRefresh(event -> {
+		}, "foo", original -> () -> original, new AckTracker(), bus.getRefresh().getRolling(), bus.getAck());
+		RefreshBusEndpoint endpoint = new RefreshBusEndpoint(event -> {
+		}, "foo", original -> () -> original, rollingRefresh);
+		assertThatExceptionOfType(InvalidEndpointRequestException.class)
+			.isThrownBy(() -> endpoint.busRefresh("2", null));
+	}
+
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.endpoint;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.bus.AckTracker;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.PingRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class RollingRefreshTests {
+
+	private final AckTracker ackTracker = new AckTracker();
+
+	private final BusProperties.Refresh.Rolling properties = new BusProperties.Refresh.Rolling();
+
+	private final List<String> instances = List.of("app:a", "app:b", "app:c", "app:d", "app:e");
+
+	private final List<String> refreshed = new ArrayList<>();
+
+	private final List<String> unresponsive = new ArrayList<>();
+
+	private RollingRefresh rollingRefresh;
+
+	@Before
+	public void init() {
+		this.properties.setDiscoveryTimeout(Duration.ofMillis(50));
+		this.properties.setWaveTimeout(Duration.ofMillis(200));
+		ApplicationEventPublisher publisher = event -> {
+			if (event instanceof PingRemoteApplicationEvent) {
+				this.instances.forEach(instance -> ack((RemoteApplicationEvent) event, instance));
+			}
+			else if (event instanceof RefreshRemoteApplicationEvent) {
+				String instance = ((RemoteApplicationEvent) event).getDestinationService();
+				this.refreshed.add(instance);
+				if (!this.unresponsive.contains(instance)) {
+					ack((RemoteApplicationEvent) event, instance);
+				}
+			}
+		};
+		Destination.Factory destinationFactory = original -> () -> original;
+		this.rollingRefresh = new RollingRefresh(publisher, "app:origin", destinationFactory, this.ackTracker,
+				this.properties);
+	}
+
+	@Test
+	public void refreshesInWavesOfFixedSize() {
+		RollingRefresh.Report report = this.rollingRefresh.run(null, "2");
+		assertThat(report.isComplete()).isTrue();
+		assertThat(report.getInstances()).containsExactlyElementsOf(this.instances);
+		assertThat(report.getWaves()).extracting(RollingRefresh.Wave::getInstances)
+			.containsExactly(List.of("app:a", "app:b"), List.of("app:c", "app:d"), List.of("app:e"));
+		assertThat(this.refreshed).containsExactlyElementsOf(this.instances);
+		assertThat(this.ackTracker.isTracking()).isFalse();
+	}
+
+	@Test
+	public void refreshesInWavesOfPercentage() {
+		RollingRefresh.Report report = this.rollingRefresh.run(null, "40%");
+		assertThat(report.isComplete()).isTrue();
+		assertThat(report.getWaves()).hasSize(3);
+	}
+
+	@Test
+	public void stopsWhenWaveIsNotAcknowledged() {
+		this.unresponsive.add("app:b");
+		RollingRefresh.Report report = this.rollingRefresh.run(null, "2");
+		assertThat(report.isComplete()).isFalse();
+		assertThat(report.getWaves()).hasSize(1);
+		assertThat(report.getWaves().get(0).getAcknowledged()).containsExactly("app:a");
+		assertThat(this.refreshed).containsExactly("app:a", "app:b");
+	}
+
+	@Test
+	public void continuesWhenEnoughOfWaveAcknowledged() {
+		this.properties.setAckPercentage(50);
+		this.unresponsive.add("app:b");
+		RollingRefresh.Report report = this.rollingRefresh.run(null, "2");
+		assertThat(report.isComplete()).isTrue();
+		assertThat(this.refreshed).containsExactlyElementsOf(this.instances);
+	}
+
+	@Test
+	public void noQuorumNeededWithZeroAckPercentage() {
+		this.properties.setAckPercentage(0);
+		this.properties.setWaveTimeout(Duration.ofMinutes(1));
+		this.unresponsive.addAll(this.instances);
+		RollingRefresh.Report report = this.rollingRefresh.run(null, "2");
+		assertThat(report.isComplete()).isTrue();
+		assertThat(report.getWaves()).allMatch(RollingRefresh.Wave::isComplete);
+		assertThat(this.refreshed).containsExactlyElementsOf(this.instances);
+	}
+
+	@Test
+	public void startsInBackground() throws Exception {
+		RollingRefresh.Report report = this.rollingRefresh.start(null, "2");
+		assertThat(this.rollingRefresh.getReport(report.getId())).isSameAs(report);
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!report.isDone() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(report.isDone()).isTrue();
+		assertThat(report.isComplete()).isTrue();
+		assertThat(report.getWaves()).hasSize(3);
+		assertThat(this.rollingRefresh.getReport("unknown")).isNull();
+	}
+
+	@Test
+	public void stopsWhenNoInstanceFound() {
+		RollingRefresh rollingRefresh = new RollingRefresh(event -> {
+		}, "app:origin", original -> () -> original, this.ackTracker, this.properties);
+		RollingRefresh.Report report = rollingRefresh.run(null, "2");
+		assertThat(report.isComplete()).isFalse();
+		assertThat(report.getInstances()).isEmpty();
+		assertThat(report.getWaves()).isEmpty();
+	}
+
+	@Test
+	public void needsEveryInstanceToAck() {
+		BusProperties.Ack ack = new BusProperties.Ack();
+		RollingRefresh rollingRefresh = new RollingRefresh(event -> {
+		}, "app:origin", original -> () -> original, this.ackTracker, this.properties, ack);
+		ack.setMode(BusProperties.Ack.Mode.ORIGIN);
+		rollingRefresh.checkAcks();
+		ack.setMode(BusProperties.Ack.Mode.SAMPLED);
+		assertThatIllegalStateException().isThrownBy(() -> rollingRefresh.run(null, "2"));
+		ack.setMode(BusProperties.Ack.Mode.OFF);
+		assertThatIllegalStateException().isThrownBy(() -> rollingRefresh.start(null, "2"));
+		ack.setMode(BusProperties.Ack.Mode.ALL);
+		ack.setEnabled(false);
+		assertThatIllegalStateException().isThrownBy(rollingRefresh::checkAcks);
+	}
+
+	@Test
+	public void parsesWaveSize() {
+		assertThat(RollingRefresh.parseWaveSize("3", 10)).isEqualTo(3);
+		assertThat(RollingRefresh.parseWaveSize("25%", 10)).isEqualTo(3);
+		assertThat(RollingRefresh.parseWaveSize("1%", 10)).isEqualTo(1);
+		assertThat(RollingRefresh.parseWaveSize(null, 10)).isEqualTo(10);
+		assertThatIllegalArgumentException().isThrownBy(() -> RollingRefresh.parseWaveSize("0", 10));
+		assertThatIllegalArgumentException().isThrownBy(() -> RollingRefresh.parseWaveSize("150%", 10));
+		assertThatIllegalArgumentException().isThrownBy(() -> RollingRefresh.parseWaveSize("many", 10));
+	}
+
+	private void ack(RemoteApplicationEvent event, String instance) {
+		this.ackTracker.acknowledge(new AckRemoteApplicationEvent(this, instance, () -> "**",
+				event.getDestinationService(), event.getId(), event.getClass()));
+	}
+
+}
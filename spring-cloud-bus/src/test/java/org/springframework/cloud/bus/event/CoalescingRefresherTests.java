@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.event;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.cloud.bus.BusMetrics;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class CoalescingRefresherTests {
+
+	private final ContextRefresher contextRefresher = mock(ContextRefresher.class);
+
+	private final CountDownLatch started = new CountDownLatch(1);
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final AtomicInteger refreshes = new AtomicInteger();
+
+	private CoalescingRefresher refresher;
+
+	@After
+	public void close() {
+		this.release.countDown();
+		if (this.refresher != null) {
+			this.refresher.destroy();
+		}
+	}
+
+	@Test
+	public void recordsRefreshWithoutDelay() throws Exception {
+		given(this.contextRefresher.refresh()).willReturn(Collections.emptySet());
+		List<Long> durations = new CopyOnWriteArrayList<>();
+		this.refresher = new CoalescingRefresher(this.contextRefresher, () -> Duration.ofMillis(200));
+		this.refresher.setMetrics(new BusMetrics() {
+			@Override
+			public void refreshed(long durationNanos, boolean success) {
+				durations.add(durationNanos);
+			}
+		});
+		this.refresher.refresh("a");
+		this.refresher.refresh("b").get(5, TimeUnit.SECONDS);
+		assertThat(durations).hasSize(1);
+		assertThat(durations.get(0)).isLessThan(Duration.ofMillis(200).toNanos());
+	}
+
+	@Test
+	public void requestsDuringRefreshShareOneFollowUp() throws Exception {
+		given(this.contextRefresher.refresh()).willAnswer(invocation -> {
+			this.refreshes.incrementAndGet();
+			this.started.countDown();
+			this.release.await(5, TimeUnit.SECONDS);
+			return Collections.emptySet();
+		});
+		this.refresher = new CoalescingRefresher(this.contextRefresher);
+		CompletableFuture<String> first = this.refresher.refresh("a");
+		assertThat(this.started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<String> second = this.refresher.refresh("b");
+		CompletableFuture<String> third = this.refresher.refresh("c");
+		this.release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+		assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("b");
+		assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo("b");
+		assertThat(this.refreshes.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void refreshesAgainAfterAnError() throws Exception {
+		given(this.contextRefresher.refresh()).willThrow(new NoClassDefFoundError("expected"))
+			.willReturn(Collections.emptySet());
+		this.refresher = new CoalescingRefresher(this.contextRefresher);
+		CompletableFuture<String> failed = this.refresher.refresh("a");
+		assertThat(failed.handle((id, ex) -> ex).get(5, TimeUnit.SECONDS)).isInstanceOf(NoClassDefFoundError.class);
+		assertThat(this.refresher.refresh("b").get(5, TimeUnit.SECONDS)).isEqualTo("b");
+	}
+
+	@Test
+	public void hashedDelayIsStableAndWithinWindow() {
+		Duration window = Duration.ofSeconds(30);
+		Duration delay = CoalescingRefresher.hashedDelay("app:dev:8080", window).get();
+		assertThat(delay).isBetween(Duration.ZERO, window);
+		assertThat(CoalescingRefresher.hashedDelay("app:dev:8080", window).get()).isEqualTo(delay);
+	}
+
+	@Test
+	public void delayedRefreshRecordsDelayAndStart() throws Exception {
+		given(this.contextRefresher.refresh()).willReturn(Collections.emptySet());
+		this.refresher = new CoalescingRefresher(this.contextRefresher, () -> Duration.ofMillis(50));
+		long before = System.currentTimeMillis();
+		this.refresher.refresh("a").get(5, TimeUnit.SECONDS);
+		assertThat(this.refresher.getLastDelay()).isEqualTo(Duration.ofMillis(50));
+		assertThat(this.refresher.getLastStartTime()).isGreaterThanOrEqualTo(before + 50);
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.event;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.cloud.bus.EventIdGeneratorInitializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventIdTests {
+
+	@After
+	public void reset() {
+		RemoteApplicationEvent.setIdGenerator(EventIdGenerator.TIME_ORDERED);
+	}
+
+	@Test
+	public void compactFormRoundTrips() {
+		EventId id = EventIdGenerator.TIME_ORDERED.generateId();
+		String value = id.toString();
+		assertThat(value).hasSize(26).matches("[0-7][0-9A-HJKMNP-TV-Z]{25}");
+		assertThat(EventId.parse(value)).isEqualTo(id);
+		assertThat(EventId.of(-1L, -1L).toString()).isEqualTo("7ZZZZZZZZZZZZZZZZZZZZZZZZZ");
+		assertThat(EventId.parse("7ZZZZZZZZZZZZZZZZZZZZZZZZZ")).isEqualTo(EventId.of(-1L, -1L));
+		assertThat(EventId.of(0L, 1L).toString()).isEqualTo("00000000000000000000000001");
+	}
+
+	@Test
+	public void uuidFormRoundTrips() {
+		String value = UUID.randomUUID().toString();
+		EventId id = EventId.parse(value);
+		assertThat(id).isEqualTo(EventId.of(UUID.fromString(value)));
+		assertThat(id.toString()).isEqualTo(value);
+	}
+
+	@Test
+	public void otherFormsAreNotParsed() {
+		assertThat(EventId.parse(null)).isNull();
+		assertThat(EventId.parse("my-id")).isNull();
+		// more than 128 bits
+		assertThat(EventId.parse("80000000000000000000000000")).isNull();
+		// not in the alphabet, or not in canonical case
+		assertThat(EventId.parse("0000000000000000000000000U")).isNull();
+		assertThat(EventId.parse("0000000000000000000000000a")).isNull();
+		assertThat(EventId.parse(UUID.randomUUID().toString().toUpperCase())).isNull();
+		assertThat(EventId.parse("1-1-1-1-1111111111111111111111111111")).isNull();
+	}
+
+	@Test
+	public void idsAreTimeOrdered() throws Exception {
+		EventId first = EventIdGenerator.TIME_ORDERED.generateId();
+		Thread.sleep(2);
+		EventId second = EventIdGenerator.TIME_ORDERED.generateId();
+		assertThat(first).isLessThan(second);
+		assertThat(first.toString()).isLessThan(second.toString());
+	}
+
+	@Test
+	public void idsAreUnique() {
+		Set<EventId> ids = new HashSet<>();
+		for (int i = 0; i < 10000; i++) {
+			ids.add(EventIdGenerator.TIME_ORDERED.generateId());
+		}
+		assertThat(ids).hasSize(10000);
+	}
+
+	@Test
+	public void generatorIsPluggable() {
+		RemoteApplicationEvent.setIdGenerator(EventIdGenerator.RANDOM_UUID);
+		RefreshRemoteApplicationEvent event = new RefreshRemoteApplicationEvent(this, "foo", "bar");
+		assertThat(UUID.fromString(event.getId()).toString()).isEqualTo(event.getId());
+	}
+
+	@Test
+	public void initializerInstallsAndRestoresGenerator() {
+		EventIdGeneratorInitializer initializer = new EventIdGeneratorInitializer(EventIdGenerator.RANDOM_UUID);
+		initializer.afterSingletonsInstantiated();
+		RefreshRemoteApplicationEvent event = new RefreshRemoteApplicationEvent(this, "foo", "bar");
+		assertThat(UUID.fromString(event.getId()).toString()).isEqualTo(event.getId());
+		initializer.destroy();
+		event = new RefreshRemoteApplicationEvent(this, "foo", "bar");
+		assertThat(event.getId()).hasSize(26);
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.event;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Test;
+
+import org.springframework.cloud.bus.event.test.TestRemoteApplicationEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventTypeResolverTests {
+
+	private final ClassLoader classLoader = getClass().getClassLoader();
+
+	@Test
+	public void knownEventResolvedAndCached() {
+		String name = TestRemoteApplicationEvent.class.getName();
+		assertThat(EventTypeResolver.resolve(name, this.classLoader)).isEqualTo(TestRemoteApplicationEvent.class);
+		assertThat(EventTypeResolver.isCached(name, this.classLoader)).isTrue();
+		assertThat(EventTypeResolver.resolve(name, this.classLoader)).isEqualTo(TestRemoteApplicationEvent.class);
+	}
+
+	@Test
+	public void unknownEventCached() {
+		String name = "com.example.NoSuchEvent";
+		assertThat(EventTypeResolver.resolve(name, this.classLoader)).isEqualTo(UnknownRemoteApplicationEvent.class);
+		assertThat(EventTypeResolver.isCached(name, this.classLoader)).isTrue();
+		assertThat(EventTypeResolver.resolve(name, this.classLoader)).isEqualTo(UnknownRemoteApplicationEvent.class);
+	}
+
+	@Test
+	public void notAnEvent() {
+		assertThat(EventTypeResolver.resolve(String.class.getName(), this.classLoader))
+			.isEqualTo(UnknownRemoteApplicationEvent.class);
+		assertThat(EventTypeResolver.resolve(null, this.classLoader)).isEqualTo(UnknownRemoteApplicationEvent.class);
+	}
+
+	@Test
+	public void cachedPerClassLoader() throws Exception {
+		String name = RefreshRemoteApplicationEvent.class.getName();
+		try (URLClassLoader other = new URLClassLoader(new URL[0], this.classLoader)) {
+			EventTypeResolver.resolve(name, this.classLoader);
+			assertThat(EventTypeResolver.isCached(name, other)).isFalse();
+			assertThat(EventTypeResolver.resolve(name, other)).isEqualTo(RefreshRemoteApplicationEvent.class);
+			assertThat(EventTypeResolver.isCached(name, other)).isTrue();
+		}
+	}
+
+	@Test
+	public void cacheBounded() throws Exception {
+		try (URLClassLoader other = new URLClassLoader(new URL[0], this.classLoader)) {
+			for (int i = 0; i < EventTypeResolver.MAX_NAMES + 10; i++) {
+				EventTypeResolver.resolve("com.example.Event" + i, other);
+			}
+			assertThat(EventTypeResolver.isCached("com.example.Event0", other)).isTrue();
+			assertThat(EventTypeResolver.isCached("com.example.Event" + EventTypeResolver.MAX_NAMES, other)).isFalse();
+		}
+	}
+
+}
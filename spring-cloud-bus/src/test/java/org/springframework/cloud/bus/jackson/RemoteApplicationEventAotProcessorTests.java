@@ -0,0 +1,95 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.jackson;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import test.foo.bar.FooBarTestRemoteApplicationEvent;
+
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.GeneratedFiles.Kind;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.cloud.bus.event.test.TestRemoteApplicationEvent;
+import org.springframework.javapoet.ClassName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class RemoteApplicationEventAotProcessorTests {
+
+	private final InMemoryGeneratedFiles generatedFiles = new InMemoryGeneratedFiles();
+
+	private final DefaultGenerationContext generationContext = new DefaultGenerationContext(
+			new ClassNameGenerator(ClassName.get(getClass())), this.generatedFiles);
+
+	@Test
+	public void runtimeHintsForBuiltInEvents() {
+		RuntimeHints hints = new RuntimeHints();
+		new BusJacksonRuntimeHints().registerHints(hints, getClass().getClassLoader());
+		assertThat(RuntimeHintsPredicates.resource().forResource(RemoteApplicationEventIndex.INDEX_LOCATION))
+			.accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection()
+			.onType(RemoteApplicationEvent.class)
+			.withMemberCategory(MemberCategory.INVOKE_DECLARED_METHODS)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection()
+			.onType(RefreshRemoteApplicationEvent.class)
+			.withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(AckRollupRemoteApplicationEvent.Entry.class))
+			.accepts(hints);
+	}
+
+	@Test
+	public void noContributionWithoutConverter() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		assertThat(new RemoteApplicationEventAotProcessor().processAheadOfTime(beanFactory)).isNull();
+	}
+
+	@Test
+	public void customEventsIndexedAndRegistered() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("busJsonConverter",
+				BeanDefinitionBuilder.genericBeanDefinition(BusJacksonMessageConverter.class)
+					.addPropertyValue("packagesToScan", new String[] { "test.foo.bar" })
+					.getBeanDefinition());
+		BeanFactoryInitializationAotContribution contribution = new RemoteApplicationEventAotProcessor()
+			.processAheadOfTime(beanFactory);
+		assertThat(contribution).isNotNull();
+		contribution.applyTo(this.generationContext, mock(BeanFactoryInitializationCode.class));
+
+		RuntimeHints hints = this.generationContext.getRuntimeHints();
+		assertThat(RuntimeHintsPredicates.reflection()
+			.onType(FooBarTestRemoteApplicationEvent.class)
+			.withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+		String index = this.generatedFiles.getGeneratedFileContent(Kind.RESOURCE,
+				RemoteApplicationEventIndex.INDEX_LOCATION);
+		assertThat(Arrays.asList(index.split("\n"))).contains(FooBarTestRemoteApplicationEvent.class.getName(),
+				TestRemoteApplicationEvent.class.getName(), RefreshRemoteApplicationEvent.class.getName());
+	}
+
+}
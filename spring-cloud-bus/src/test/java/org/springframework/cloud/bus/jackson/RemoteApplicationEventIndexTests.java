@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.bus.jackson;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.core.SpringProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RemoteApplicationEventIndexTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@After
+	public void clean() {
+		SpringProperties.setProperty(RemoteApplicationEventIndex.IGNORE_INDEX, null);
+	}
+
+	@Test
+	public void noIndex() throws IOException {
+		assertThat(RemoteApplicationEventIndex.load(classLoader())).isNull();
+	}
+
+	@Test
+	public void typesInPackage() throws IOException {
+		index("# events", "", RefreshRemoteApplicationEvent.class.getName(), AckRemoteApplicationEvent.class.getName(),
+				"com.example.MyEvent");
+		RemoteApplicationEventIndex index = RemoteApplicationEventIndex.load(classLoader());
+		assertThat(index).isNotNull();
+		assertThat(index.getTypes("org.springframework.cloud.bus.event"))
+			.containsExactly(RefreshRemoteApplicationEvent.class, AckRemoteApplicationEvent.class);
+		assertThat(index.getTypes("org.springframework.cloud.bus")).hasSize(2);
+		assertThat(index.getTypes("org.springframework.cloud.bus.ev")).isEmpty();
+	}
+
+	@Test
+	public void staleEntriesSkipped() throws IOException {
+		index("com.example.MyEvent", RefreshRemoteApplicationEvent.class.getName());
+		RemoteApplicationEventIndex index = RemoteApplicationEventIndex.load(classLoader());
+		assertThat(index.getTypes("com.example")).isEmpty();
+		assertThat(index.getTypes("org.springframework.cloud.bus"))
+			.containsExactly(RefreshRemoteApplicationEvent.class);
+	}
+
+	@Test
+	public void indexIgnored() throws IOException {
+		index(RefreshRemoteApplicationEvent.class.getName());
+		SpringProperties.setFlag(RemoteApplicationEventIndex.IGNORE_INDEX);
+		assertThat(RemoteApplicationEventIndex.load(classLoader())).isNull();
+	}
+
+	private void index(String... lines) throws IOException {
+		File file = new File(this.temp.getRoot(), RemoteApplicationEventIndex.INDEX_LOCATION);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), Arrays.asList(lines));
+	}
+
+	private ClassLoader classLoader() throws IOException {
+		return new URLClassLoader(new URL[] { this.temp.getRoot().toURI().toURL() }, getClass().getClassLoader());
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.bus.jackson;
 
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
@@ -30,7 +32,10 @@ import org.springframework.boot.Banner;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.BatchRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.EnvironmentChangeRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.PingRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.ShutdownRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.UnknownRemoteApplicationEvent;
@@ -88,6 +93,26 @@ public class RemoteApplicationEventScanTests {
 				TestRemoteApplicationEvent.class, TypedRemoteApplicationEvent.class);
 	}
 
+	@Test
+	public void scansCachedPerClassLoader() throws Exception {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		assertThat(BusJacksonMessageConverter.scan("test.foo.bar"))
+			.containsExactly(FooBarTestRemoteApplicationEvent.class);
+		assertThat(BusJacksonMessageConverter.getScannedTypeNames(classLoader, "test.foo.bar"))
+			.containsExactly(FooBarTestRemoteApplicationEvent.class.getName());
+
+		try (URLClassLoader other = new URLClassLoader(new URL[0], classLoader)) {
+			Thread.currentThread().setContextClassLoader(other);
+			assertThat(BusJacksonMessageConverter.getScannedTypeNames(other, "test.foo.bar")).isNull();
+			assertThat(BusJacksonMessageConverter.scan("test.foo.bar"))
+				.containsExactly(FooBarTestRemoteApplicationEvent.class);
+			assertThat(BusJacksonMessageConverter.getScannedTypeNames(other, "test.foo.bar")).isNotNull();
+		}
+		finally {
+			Thread.currentThread().setContextClassLoader(classLoader);
+		}
+	}
+
 	private ConfigurableApplicationContext createTestContext(Class<?> configuration) {
 		return new SpringApplicationBuilder(configuration).web(WebApplicationType.NONE)
 			.bannerMode(Banner.Mode.OFF)
@@ -121,7 +146,10 @@ public class RemoteApplicationEventScanTests {
 
 	private void addStandardSpringCloudEventBusEvents(final List<Class<?>> expectedRegisterdClassesAsList) {
 		expectedRegisterdClassesAsList.add(AckRemoteApplicationEvent.class);
+		expectedRegisterdClassesAsList.add(AckRollupRemoteApplicationEvent.class);
+		expectedRegisterdClassesAsList.add(BatchRemoteApplicationEvent.class);
 		expectedRegisterdClassesAsList.add(EnvironmentChangeRemoteApplicationEvent.class);
+		expectedRegisterdClassesAsList.add(PingRemoteApplicationEvent.class);
 		expectedRegisterdClassesAsList.add(RefreshRemoteApplicationEvent.class);
 		expectedRegisterdClassesAsList.add(UnknownRemoteApplicationEvent.class);
 		expectedRegisterdClassesAsList.add(ShutdownRemoteApplicationEvent.class);
@@ -16,14 +16,23 @@
 
 package org.springframework.cloud.bus.jackson;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
 
 import org.junit.Test;
 import tools.jackson.databind.MapperFeature;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
 
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.AckRollupRemoteApplicationEvent.Outcome;
+import org.springframework.cloud.bus.event.BatchRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.EnvironmentChangeRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.EventId;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
 import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 
@@ -62,11 +71,82 @@ public class SerializationTests {
 		EnvironmentChangeRemoteApplicationEvent source = new EnvironmentChangeRemoteApplicationEvent(this, "foo", "bar",
 				Collections.<String, String>emptyMap());
 		String value = this.mapper.writeValueAsString(source);
-		value = value.replaceAll(",\"id\":\"[a-f0-9-]*\"", "");
+		value = value.replaceAll(",\"id\":\"[0-9A-Za-z-]*\"", "");
 		RemoteApplicationEvent event = this.mapper.readValue(value, RemoteApplicationEvent.class);
 		assertThat(event instanceof EnvironmentChangeRemoteApplicationEvent).isTrue();
 		assertThat(event.getId()).isNotNull();
 		assertThat(event.getId().equals(source.getId())).isFalse();
+		assertThat(event.getId()).isEqualTo(event.getId());
+		assertThat(event.hashCode()).isEqualTo(event.hashCode());
+	}
+
+	@Test
+	public void deserializeOldValueWithUuidId() throws Exception {
+		this.mapper = JsonMapper.builder().addModule(new SubtypeModule(RefreshRemoteApplicationEvent.class)).build();
+		String id = UUID.randomUUID().toString();
+		String value = this.mapper.writeValueAsString(new RefreshRemoteApplicationEvent(this, "foo", "bar"))
+			.replaceAll("\"id\":\"[0-9A-Za-z-]*\"", "\"id\":\"" + id + "\"");
+		RemoteApplicationEvent event = this.mapper.readValue(value, RemoteApplicationEvent.class);
+		assertThat(event.getId()).isEqualTo(id);
+		assertThat(event.getEventId()).isEqualTo(EventId.of(UUID.fromString(id)));
+		assertThat(this.mapper.writeValueAsString(event)).isEqualTo(value);
+	}
+
+	@Test
+	public void deserializeOpaqueId() throws Exception {
+		this.mapper = JsonMapper.builder().addModule(new SubtypeModule(RefreshRemoteApplicationEvent.class)).build();
+		String value = this.mapper.writeValueAsString(new RefreshRemoteApplicationEvent(this, "foo", "bar"))
+			.replaceAll("\"id\":\"[0-9A-Za-z-]*\"", "\"id\":\"my-id\"");
+		RemoteApplicationEvent event = this.mapper.readValue(value, RemoteApplicationEvent.class);
+		assertThat(event.getId()).isEqualTo("my-id");
+		assertThat(event.getEventId()).isNull();
+		assertThat(this.mapper.writeValueAsString(event)).isEqualTo(value);
+	}
+
+	@Test
+	public void batchRoundTrip() throws Exception {
+		this.mapper = JsonMapper.builder()
+			.addModule(new SubtypeModule(RefreshRemoteApplicationEvent.class,
+					EnvironmentChangeRemoteApplicationEvent.class, BatchRemoteApplicationEvent.class))
+			.build();
+		PathDestinationFactory destinationFactory = new PathDestinationFactory();
+		RefreshRemoteApplicationEvent refresh = new RefreshRemoteApplicationEvent(this, "foo",
+				destinationFactory.getDestination("bar"));
+		EnvironmentChangeRemoteApplicationEvent env = new EnvironmentChangeRemoteApplicationEvent(this, "foo",
+				destinationFactory.getDestination("bar"), Collections.singletonMap("a", "b"));
+		BatchRemoteApplicationEvent source = new BatchRemoteApplicationEvent(this, "foo",
+				destinationFactory.getDestination("bar"), Arrays.asList(refresh, env));
+		String value = this.mapper.writeValueAsString(source);
+		RemoteApplicationEvent event = this.mapper.readValue(value, RemoteApplicationEvent.class);
+		assertThat(event).isInstanceOf(BatchRemoteApplicationEvent.class);
+		assertThat(((BatchRemoteApplicationEvent) event).getEvents()).containsExactly(refresh, env);
+	}
+
+	@Test
+	public void ackRollupRoundTrip() throws Exception {
+		this.mapper = JsonMapper.builder()
+			.addModule(new SubtypeModule(RefreshRemoteApplicationEvent.class, AckRollupRemoteApplicationEvent.class))
+			.build();
+		PathDestinationFactory destinationFactory = new PathDestinationFactory();
+		AckRemoteApplicationEvent processed = new AckRemoteApplicationEvent(this, "foo",
+				destinationFactory.getDestination("bar"), "**", "one", RefreshRemoteApplicationEvent.class);
+		AckRemoteApplicationEvent failed = new AckRemoteApplicationEvent(this, "foo",
+				destinationFactory.getDestination("bar"), "**", "two", RefreshRemoteApplicationEvent.class);
+		AckRollupRemoteApplicationEvent source = new AckRollupRemoteApplicationEvent(this, "foo",
+				destinationFactory.getDestination("bar"),
+				Arrays.asList(new AckRollupRemoteApplicationEvent.Entry(processed, Outcome.PROCESSED),
+						new AckRollupRemoteApplicationEvent.Entry(failed, Outcome.FAILED)));
+		String value = this.mapper.writeValueAsString(source);
+		RemoteApplicationEvent event = this.mapper.readValue(value, RemoteApplicationEvent.class);
+		assertThat(event).isInstanceOf(AckRollupRemoteApplicationEvent.class);
+		AckRollupRemoteApplicationEvent rollup = (AckRollupRemoteApplicationEvent) event;
+		assertThat(rollup.getAcks()).isEqualTo(source.getAcks());
+		List<AckRemoteApplicationEvent> acks = rollup.toAcks();
+		assertThat(acks).hasSize(1);
+		assertThat(acks.get(0).getAckId()).isEqualTo("one");
+		assertThat(acks.get(0).getEvent()).isEqualTo(RefreshRemoteApplicationEvent.class);
+		assertThat(acks.get(0).getOriginService()).isEqualTo("foo");
+		assertThat(acks.get(0).getDestinationService()).isEqualTo("bar:**");
 	}
 
 }
@@ -16,12 +16,18 @@
 
 package org.springframework.cloud.bus.jackson;
 
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import org.junit.Test;
+import test.foo.bar.FooBarTestRemoteApplicationEvent;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
 
+import org.springframework.cloud.bus.BusConstants;
+import org.springframework.cloud.bus.BusMetrics;
 import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.BatchRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.RemoteApplicationEvent;
 import org.springframework.cloud.bus.event.UnknownRemoteApplicationEvent;
 import org.springframework.cloud.bus.event.test.TestRemoteApplicationEvent;
@@ -29,6 +35,9 @@ import org.springframework.cloud.bus.event.test.TypedRemoteApplicationEvent;
 import org.springframework.messaging.support.MessageBuilder;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Spencer Gibb
@@ -96,6 +105,127 @@ public class SubtypeModuleTests {
 			.isEqualTo("{\"type\":\"NotDefinedTestRemoteApplicationEvent\"}");
 	}
 
+	@Test
+	public void testUnknownTypeNotDeserializedWithMessageConverter() throws Exception {
+		BusJacksonMessageConverter converter = new BusJacksonMessageConverter(null);
+		converter.afterPropertiesSet();
+		assertThat(converter.getKnownTypeIds()).contains("AckRemoteApplicationEvent", "TestRemoteApplicationEvent",
+				"typed");
+		// not valid past the type, so only read as far as that
+		String payload = "{\"type\":\"NotDefinedTestRemoteApplicationEvent\", \"originService\":";
+		Object event = converter.fromMessage(MessageBuilder.withPayload(payload).build(),
+				RemoteApplicationEvent.class);
+		assertThat(event).isInstanceOf(UnknownRemoteApplicationEvent.class);
+		assertThat(((UnknownRemoteApplicationEvent) event).getTypeInfo())
+			.isEqualTo("NotDefinedTestRemoteApplicationEvent");
+		assertThat(converter.getUnknownTypeIds()).isEmpty();
+	}
+
+	@Test
+	public void testSubtypeModuleTypesKnownWithMessageConverter() throws Exception {
+		ObjectMapper mapper = JsonMapper.builder().addModule(new SubtypeModule(MyRemoteApplicationEvent.class)).build();
+		BusJacksonMessageConverter converter = new BusJacksonMessageConverter(mapper);
+		converter.afterPropertiesSet();
+		assertThat(converter.getKnownTypeIds()).contains("my", "TestRemoteApplicationEvent");
+		Object event = converter.fromMessage(MessageBuilder.withPayload("{\"type\":\"my\"}").build(),
+				RemoteApplicationEvent.class);
+		assertThat(event).isInstanceOf(MyRemoteApplicationEvent.class);
+	}
+
+	@Test
+	public void testUnknownTypeInBatchWithMessageConverter() throws Exception {
+		BusJacksonMessageConverter converter = new BusJacksonMessageConverter(null);
+		converter.afterPropertiesSet();
+		String unknown = "{\"type\":\"NotDefinedTestRemoteApplicationEvent\",\"originService\":\"foo\"}";
+		String payload = "{\"type\":\"BatchRemoteApplicationEvent\", \"originService\":\"foo\", "
+				+ "\"destinationService\":\"**\", \"events\":[{\"type\":\"TestRemoteApplicationEvent\", "
+				+ "\"originService\":\"foo\", \"destinationService\":\"**\"}, " + unknown + "]}";
+		Object event = converter.fromMessage(MessageBuilder.withPayload(payload).build(),
+				RemoteApplicationEvent.class);
+		assertThat(event).isInstanceOf(BatchRemoteApplicationEvent.class);
+		List<RemoteApplicationEvent> events = ((BatchRemoteApplicationEvent) event).getEvents();
+		assertThat(events).hasSize(2);
+		assertThat(events.get(0)).isInstanceOf(TestRemoteApplicationEvent.class);
+		assertThat(events.get(1)).isInstanceOf(UnknownRemoteApplicationEvent.class);
+		assertThat(((UnknownRemoteApplicationEvent) events.get(1)).getTypeInfo())
+			.isEqualTo("NotDefinedTestRemoteApplicationEvent");
+		assertThat(((UnknownRemoteApplicationEvent) events.get(1)).getPayloadAsString()).isEqualTo(unknown);
+	}
+
+	@Test
+	public void testUnknownTypeRememberedWithMessageConverter() throws Exception {
+		// a mapper that is passed in may know types from other modules, so try reading once
+		BusJacksonMessageConverter converter = new BusJacksonMessageConverter(JsonMapper.builder().build());
+		BusMetrics metrics = mock(BusMetrics.class);
+		converter.setMetrics(metrics);
+		converter.afterPropertiesSet();
+		String payload = "{\"originService\":\"foo\", \"type\":\"NotDefinedTestRemoteApplicationEvent\"}";
+		for (int i = 0; i < 2; i++) {
+			Object event = converter.fromMessage(MessageBuilder.withPayload(payload).build(),
+					RemoteApplicationEvent.class);
+			assertThat(event).isInstanceOf(UnknownRemoteApplicationEvent.class);
+			assertThat(((UnknownRemoteApplicationEvent) event).getTypeInfo())
+				.isEqualTo("NotDefinedTestRemoteApplicationEvent");
+			assertThat(((UnknownRemoteApplicationEvent) event).getPayloadAsString()).isEqualTo(payload);
+			assertThat(converter.getUnknownTypeIds()).containsExactly("NotDefinedTestRemoteApplicationEvent");
+		}
+		verify(metrics, times(2)).unknownEvent("NotDefinedTestRemoteApplicationEvent");
+	}
+
+	@Test
+	public void testUnknownTypeFromHeaderWithMessageConverter() throws Exception {
+		BusJacksonMessageConverter converter = new BusJacksonMessageConverter(null);
+		converter.afterPropertiesSet();
+		converter.getUnknownTypeIds().add("NotDefinedTestRemoteApplicationEvent");
+		Object event = converter.fromMessage(MessageBuilder.withPayload("{}")
+			.setHeader(BusConstants.TYPE_HEADER, "NotDefinedTestRemoteApplicationEvent")
+			.build(), RemoteApplicationEvent.class);
+		assertThat(event).isInstanceOf(UnknownRemoteApplicationEvent.class);
+		assertThat(((UnknownRemoteApplicationEvent) event).getTypeInfo())
+			.isEqualTo("NotDefinedTestRemoteApplicationEvent");
+	}
+
+	@Test
+	public void testUnknownTypeForgottenWhenPackagesToScanChanged() throws Exception {
+		BusJacksonMessageConverter converter = new BusJacksonMessageConverter(null);
+		converter.afterPropertiesSet();
+		Object event = converter.fromMessage(
+				MessageBuilder.withPayload("{\"type\":\"FooBarTestRemoteApplicationEvent\"}").build(),
+				RemoteApplicationEvent.class);
+		assertThat(event).isInstanceOf(UnknownRemoteApplicationEvent.class);
+		converter.setPackagesToScan(new String[] { "test.foo.bar" });
+		assertThat(converter.getUnknownTypeIds()).isEmpty();
+		event = converter.fromMessage(
+				MessageBuilder.withPayload("{\"type\":\"FooBarTestRemoteApplicationEvent\"}").build(),
+				RemoteApplicationEvent.class);
+		assertThat(event).isInstanceOf(FooBarTestRemoteApplicationEvent.class);
+	}
+
+	@Test
+	public void testPackagesToScanChangedAfterInitialization() throws Exception {
+		BusJacksonMessageConverter converter = new BusJacksonMessageConverter(null);
+		converter.afterPropertiesSet();
+		converter.setPackagesToScan(new String[] { "test.foo.bar" });
+		Object event = converter.fromMessage(
+				MessageBuilder.withPayload("{\"type\":\"FooBarTestRemoteApplicationEvent\"}").build(),
+				RemoteApplicationEvent.class);
+		assertThat(event).isInstanceOf(FooBarTestRemoteApplicationEvent.class);
+	}
+
+	@Test
+	public void testReaderCachedPerTargetType() throws Exception {
+		BusJacksonMessageConverter converter = new BusJacksonMessageConverter(null);
+		converter.afterPropertiesSet();
+		for (int i = 0; i < 3; i++) {
+			converter.fromMessage(MessageBuilder.withPayload("{\"type\":\"TestRemoteApplicationEvent\"}").build(),
+					RemoteApplicationEvent.class);
+		}
+		assertThat(converter.getCachedReaderCount()).isEqualTo(1);
+		converter.fromMessage(MessageBuilder.withPayload("{\"type\":\"TestRemoteApplicationEvent\"}").build(),
+				TestRemoteApplicationEvent.class);
+		assertThat(converter.getCachedReaderCount()).isEqualTo(2);
+	}
+
 	@Test
 	public void testDeserializeJsonTypeWithMessageConverter() throws Exception {
 		BusJacksonMessageConverter converter = new BusJacksonMessageConverter(null);